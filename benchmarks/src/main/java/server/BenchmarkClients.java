@@ -0,0 +1,59 @@
+package server;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+
+// 벤치마크용 접속 좌석: 실제 ClientHandler를 등록하되 소켓 대신 버퍼 뷰만 받아 두는 연결을 사용
+// (인코딩과 수신자별 duplicate()까지는 실제 경로 그대로, 소켓 쓰기만 제외)
+final class BenchmarkClients {
+    private BenchmarkClients() {
+    }
+
+    // 핸들러가 메시지마다 남기는 콘솔 로그가 측정을 덮지 않도록 출력 차단 (JMH 결과는 별도 채널로 전달됨)
+    static void silenceConsole() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setProperty("aircon.log.dir", "");  // 이벤트 기록도 파일로 쓰지 않음 (EventLog가 처음 쓰이기 전에 호출)
+    }
+
+    // 자리 번호 firstSeat부터 count개를 등록 (기본 구역 설정이면 모두 첫 구역에 속함)
+    static ClientHandler[] register(ClientRegistry clients, int firstSeat, int count, boolean binary) {
+        ClientHandler[] handlers = new ClientHandler[count];
+        for (int i = 0; i < count; i++) {
+            handlers[i] = new ClientHandler(new DiscardingConnection(binary), clients);
+            handlers[i].start(String.valueOf(firstSeat + i));
+        }
+        return handlers;
+    }
+
+    // 송신 대기열 대신 마지막 버퍼만 보관
+    static final class DiscardingConnection implements Connection {
+        private final boolean binary;
+        ByteBuffer last;
+        long sent;
+
+        DiscardingConnection(boolean binary) {
+            this.binary = binary;
+        }
+
+        @Override
+        public boolean send(OutboundMessage message) {
+            last = message.buffer(binary);
+            sent++;
+            return true;
+        }
+
+        @Override
+        public void enableBinaryFrames() {
+        }
+
+        @Override
+        public int queuedMessages() {
+            return 0;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
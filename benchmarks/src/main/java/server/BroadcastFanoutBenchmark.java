@@ -0,0 +1,37 @@
+package server;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// 같은 구역 좌석 수(10/100/1000)에 따른 채팅 브로드캐스트 비용
+// -prof gc 로 실행하면 수신자 수가 늘어도 메시지 인코딩 할당이 늘지 않는지 확인 가능
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+// 좌석별 요청 한도(SeatRateLimiter)는 끄고 측정: 켜 두면 대부분 한도에 걸려 버려진 메시지를 재게 됨
+@Fork(value = 1, jvmArgsAppend = {"-Daircon.rate.chatPerSecond=0", "-Daircon.rate.temperaturePerSecond=0",
+        "-Daircon.rate.votePerSecond=0", "-Daircon.rate.controlPerSecond=0", "-Daircon.rate.syncPerSecond=0"})
+@State(Scope.Benchmark)
+public class BroadcastFanoutBenchmark {
+    @Param({"10", "100", "1000"})
+    public int recipients;
+
+    @Param({"false", "true"})
+    public boolean binary; // 수신자 연결의 프레임 형식
+
+    private ClientHandler sender;
+
+    @Setup
+    public void setUp() {
+        BenchmarkClients.silenceConsole();
+        ClientRegistry clients = new ClientRegistry();
+        sender = BenchmarkClients.register(clients, 1, recipients, binary)[0];
+    }
+
+    @Benchmark
+    public void chat() {
+        sender.onChat("1: 너무 추워요");
+    }
+}
@@ -0,0 +1,59 @@
+package server;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+// ClientHandler가 수신한 한 줄/프레임을 해석해 처리하기까지의 비용 (로그 출력 포함, 소켓 읽기 제외)
+// 채팅은 같은 구역 좌석 10명에게 전달, 투표는 진행 중인 투표가 없어 요청자에게 안내만 보냄
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+// 좌석별 요청 한도(SeatRateLimiter)는 끄고 측정: 켜 두면 대부분 한도에 걸려 버려진 메시지를 재게 됨
+@Fork(value = 1, jvmArgsAppend = {"-Daircon.rate.chatPerSecond=0", "-Daircon.rate.temperaturePerSecond=0",
+        "-Daircon.rate.votePerSecond=0", "-Daircon.rate.controlPerSecond=0", "-Daircon.rate.syncPerSecond=0"})
+@State(Scope.Thread)
+public class ClientHandlerDispatchBenchmark {
+    private static final int FRAMES = 100;
+
+    private ClientHandler handler;
+    private ByteBuffer frames;
+    private BinaryProtocol.Decoder decoder;
+
+    @Setup
+    public void setUp() {
+        BenchmarkClients.silenceConsole();
+        ClientRegistry clients = new ClientRegistry();
+        handler = BenchmarkClients.register(clients, 1, 10, false)[0];
+
+        // 채팅 1 : 투표 1 프레임 묶음
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < FRAMES; i++) {
+            out.writeBytes(i % 2 == 0
+                    ? BinaryProtocol.encodeText(BinaryProtocol.OP_CHAT, "1: 너무 추워요")
+                    : BinaryProtocol.encode(BinaryProtocol.OP_VOTE, 1));
+        }
+        frames = ByteBuffer.wrap(out.toByteArray());
+        decoder = new BinaryProtocol.Decoder();
+    }
+
+    @Benchmark
+    public void textChat() {
+        handler.handleMessage("1: 너무 추워요");
+    }
+
+    @Benchmark
+    public void textVote() {
+        handler.handleMessage("투표: yes");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public void binaryFrames() {
+        frames.clear();
+        decoder.decode(frames, handler);
+    }
+}
@@ -0,0 +1,50 @@
+package server;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 여러 좌석이 동시에 평균 모드 온도 요청을 보낼 때의 처리량 (한 구역 = 한 샤드에 몰리는 최악의 경우)
+// 요청은 구역 샤드에서 집계 창에 반영되므로, 1024건마다 샤드가 따라잡을 때까지 기다려
+// 큐에 쌓이기만 하는 처리량이 아니라 샤드까지 포함한 지속 처리량을 측정
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TemperatureRequestBenchmark {
+    private static final int BATCH = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        final Zone zone = ZoneManager.all().get(0);
+        final AtomicInteger nextSeat = new AtomicInteger(1);
+
+        @Setup
+        public void setUp() {
+            BenchmarkClients.silenceConsole();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Seat {
+        String seatId;
+        int count;
+
+        @Setup
+        public void setUp(Shared shared) {
+            seatId = String.valueOf(shared.nextSeat.getAndIncrement());
+        }
+    }
+
+    @Benchmark
+    public void addTemperatureRequest(Shared shared, Seat seat) throws InterruptedException, ExecutionException {
+        AirConditionerManager.addTemperatureRequest(shared.zone, seat.seatId, 18 + (seat.count & 7));
+        if (++seat.count % BATCH == 0) {
+            shared.zone.shard().submit(() -> { }).get(); // 샤드 백로그 소진 대기
+        }
+    }
+}
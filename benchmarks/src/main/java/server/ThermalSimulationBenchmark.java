@@ -0,0 +1,39 @@
+package server;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// ThermalSimulator 한 틱(1초 진행)에 걸리는 시간: 구역 수별로 측정 (1024개를 넘으면 fork/join 병렬)
+// 구역마다 설정 온도·바람 세기·인원·냉난방을 다르게 두어 분기가 한쪽으로 쏠리지 않게 함
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThermalSimulationBenchmark {
+    @State(Scope.Benchmark)
+    public static class Building {
+        @Param({"100", "10000", "100000"})
+        public int zones;
+
+        ThermalSimulator simulator;
+
+        @Setup
+        public void setUp() {
+            simulator = new ThermalSimulator(zones, 27);
+            for (int i = 0; i < zones; i++) {
+                simulator.setpoint[i] = 18 + i % 9;
+                simulator.wind[i] = 1 + i % 3;
+                simulator.occupants[i] = i % 40;
+                simulator.heating[i] = i % 5 == 0;
+            }
+        }
+    }
+
+    @Benchmark
+    public double step(Building building) {
+        building.simulator.step(1.0);
+        return building.simulator.air[0];
+    }
+}
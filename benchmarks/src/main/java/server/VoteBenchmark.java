@@ -0,0 +1,51 @@
+package server;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// VoteManager.handleVote 처리량: 스레드마다 자기 투표를 열고 구역의 모든 좌석이 한 표씩 던지면
+// (마지막 표에서 결과 처리) 다음 투표를 여는 과정을 반복. 투표 요청 안내 브로드캐스트도 포함됨
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class VoteBenchmark {
+    @State(Scope.Benchmark)
+    public static class Room {
+        @Param({"100", "1000"})
+        public int seats;
+
+        final Zone zone = ZoneManager.all().get(0);
+        final ClientRegistry clients = new ClientRegistry();
+        ClientHandler[] handlers;
+
+        @Setup
+        public void setUp() {
+            BenchmarkClients.silenceConsole();
+            handlers = BenchmarkClients.register(clients, 1, seats, false);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Ballots {
+        int voteId;
+        int cursor; // 다음에 투표할 좌석 (0번 좌석은 요청자)
+
+        void open(Room room) {
+            voteId = VoteManager.handleVoteRequest(room.zone, 22, room.handlers[0], room.clients);
+            cursor = 1;
+        }
+    }
+
+    @Benchmark
+    public boolean handleVote(Room room, Ballots ballots) {
+        if (ballots.cursor == 0 || ballots.cursor == room.seats) {
+            ballots.open(room);
+        }
+        ClientHandler voter = room.handlers[ballots.cursor++];
+        return VoteManager.handleVote(room.zone, voter.getClientId(), (ballots.cursor & 1) == 0, ballots.voteId, room.clients);
+    }
+}
@@ -0,0 +1,186 @@
+package bench;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
+
+// 클러스터 점검: localhost에서 노드 3개를 각각 별도 JVM으로 띄우고 (구역 A/B/C를 노드 1/2/3이 맡음)
+//   1. 다른 노드가 맡은 자리로 접속하면 맡은 노드로 안내되는지
+//   2. 관리자 제어와 공지가 다른 노드의 좌석에까지 전달되는지
+//   3. 노드 2를 강제로 종료한 뒤 남은 두 노드가 구역 B를 이어받아 계속 처리하는지 (상태 버전도 이어지는지)
+// 를 차례로 확인하고 단계마다 통과/실패를 출력 (하나라도 실패하면 종료 코드 1)
+//   실행 예) java -cp out bench.ClusterHarness   옵션: -Dbench.basePort=21000
+public class ClusterHarness {
+    private static final String ZONES = "A:1-33;B:34-66;C:67-99";
+    private static final long WAIT_MILLIS = 10_000;
+
+    private static final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        int base = Integer.getInteger("bench.basePort", 21000);
+        String nodes = "127.0.0.1:" + (base + 1) + ":" + (base + 101) + ",127.0.0.1:" + (base + 2) + ":" + (base + 102)
+                + ",127.0.0.1:" + (base + 3) + ":" + (base + 103);
+        Path work = Files.createTempDirectory("aircon-cluster");
+        List<Process> servers = new ArrayList<>();
+        List<Seat> seats = new ArrayList<>();
+        try {
+            for (int node = 1; node <= 3; node++) {
+                servers.add(startNode(node, nodes, work));
+            }
+            for (int node = 1; node <= 3; node++) {
+                waitForPort(base + node);
+            }
+
+            // 1. 구역 B(노드 2)의 자리로 노드 1에 접속하면 노드 2로 안내
+            Seat stray = seats(seats, new Seat(base + 1, "40 STATE=0"));
+            check("다른 노드가 맡은 자리 안내", stray.await(line -> line.equals("[노드 이동] 127.0.0.1:" + (base + 2))) != null);
+
+            Seat seatA = seats(seats, new Seat(base + 1, "1 STATE=0"));
+            Seat seatB = seats(seats, new Seat(base + 2, "40 STATE=0"));
+            Seat seatC = seats(seats, new Seat(base + 3, "70 STATE=0"));
+            check("각 노드에 자기 구역 좌석 접속", seatA.await(ClusterHarness::isSnapshot) != null
+                    && seatB.await(ClusterHarness::isSnapshot) != null && seatC.await(ClusterHarness::isSnapshot) != null);
+
+            // 2. 노드 1의 관리자가 모든 구역 온도를 바꾸면 다른 노드의 좌석도 변경분을 받음
+            Seat admin = seats(seats, new Seat(base + 1, "admin STATE=0"));
+            admin.send("관리자 제어: 전체 temperature=20");
+            check("관리자 제어 응답", admin.await(line -> line.startsWith("[관리자 제어 완료] 구역 3개")) != null);
+            String deltaB = seatB.await(line -> line.startsWith("[상태 변경] ") && line.contains("temperature=20"));
+            check("다른 노드 좌석에 관리자 제어 반영", deltaB != null
+                    && seatC.await(line -> line.startsWith("[상태 변경] ") && line.contains("temperature=20")) != null);
+            admin.send("[공지] 클러스터 점검");
+            check("공지가 모든 노드에 전달", seatB.await(line -> line.equals("[공지] 클러스터 점검")) != null
+                    && seatC.await(line -> line.equals("[공지] 클러스터 점검")) != null);
+
+            // 3. 노드 2 종료: 구역 B는 노드 3이 이어받고, 좌석은 마지막으로 본 버전부터 이어서 받음
+            servers.get(1).destroyForcibly().waitFor();
+            long lastSeen = deltaB == null ? 0 : Long.parseLong(deltaB.split(" ")[2]);
+            String moved = null;
+            long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+            while (moved == null && System.currentTimeMillis() < deadline) {
+                Seat retry = seats(seats, new Seat(base + 1, "40 STATE=" + lastSeen));
+                moved = retry.await(line -> line.startsWith("[노드 이동] "));
+            }
+            check("노드 2 종료 후 구역 B 안내 (노드 3)", ("[노드 이동] 127.0.0.1:" + (base + 3)).equals(moved));
+
+            Seat seatB2 = seats(seats, new Seat(base + 3, "40 STATE=" + lastSeen));
+            seatB2.send("이어받은 노드 채팅");
+            check("이어받은 노드에서 구역 B 채팅", seatB2.await(line -> line.equals("이어받은 노드 채팅")) != null);
+            check("상태 버전 이어서 받음 (전체 상태 없이)", seatB2.lines.stream().noneMatch(ClusterHarness::isSnapshot));
+
+            admin.send("관리자 제어: B temperature=24");
+            check("남은 노드 사이 복제", seatB2.await(line -> line.startsWith("[상태 변경] ") && line.contains("temperature=24")) != null);
+            seatA.send("노드 1 채팅");
+            check("노드 1 계속 처리", seatA.await(line -> line.equals("노드 1 채팅")) != null);
+        } finally {
+            for (Seat seat : seats) {
+                seat.close();
+            }
+            for (Process server : servers) {
+                server.destroyForcibly();
+            }
+        }
+
+        System.out.println();
+        System.out.println(failures.isEmpty() ? "모든 단계 통과" : "실패한 단계: " + failures);
+        System.out.println("노드 로그: " + work);
+        System.exit(failures.isEmpty() ? 0 : 1);
+    }
+
+    private static boolean isSnapshot(String line) {
+        return line.startsWith("[상태] ");
+    }
+
+    private static void check(String step, boolean passed) {
+        System.out.println((passed ? "[통과] " : "[실패] ") + step);
+        if (!passed) {
+            failures.add(step);
+        }
+    }
+
+    private static Seat seats(List<Seat> seats, Seat seat) {
+        seats.add(seat);
+        return seat;
+    }
+
+    // -Daircon.* 속성은 노드 JVM에 그대로 전달. 노드마다 저널과 로그 디렉터리를 따로 둠
+    private static Process startNode(int node, String nodes, Path work) throws IOException {
+        Path dir = Files.createDirectories(work.resolve("node-" + node));
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("aircon."))
+                .forEach(name -> command.add("-D" + name + "=" + System.getProperty(name)));
+        command.addAll(List.of("-Daircon.cluster.nodes=" + nodes, "-Daircon.cluster.node=" + node,
+                "-Daircon.zones=" + ZONES, "-Daircon.metrics.port=0",
+                "-Daircon.journal.dir=" + dir.resolve("journal"), "-Daircon.log.dir=" + dir.resolve("logs"),
+                "-Dstdout.encoding=UTF-8"));
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), "server.ServerMain", "nio"));
+        return new ProcessBuilder(command)
+                .redirectOutput(dir.resolve("stdout.log").toFile())
+                .redirectErrorStream(true)
+                .start();
+    }
+
+    private static void waitForPort(int port) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            try {
+                new Socket("localhost", port).close(); // 접속되면 바로 닫음
+                return;
+            } catch (IOException e) {
+                Thread.sleep(100);
+            }
+        }
+        throw new IllegalStateException("노드가 시작되지 않았습니다: " + port);
+    }
+
+    // 좌석 하나 = 소켓 하나 + 받은 줄을 모으는 가상 스레드
+    private static final class Seat {
+        private final Socket socket;
+        private final PrintWriter out;
+        private final BlockingQueue<String> inbox = new LinkedBlockingQueue<>();
+        private final List<String> lines = new CopyOnWriteArrayList<>();
+
+        Seat(int port, String handshake) throws IOException {
+            this.socket = new Socket("localhost", port);
+            this.out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Thread.ofVirtual().start(() -> {
+                try {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        lines.add(line);
+                        inbox.add(line);
+                    }
+                } catch (IOException ignored) {
+                }
+            });
+            out.println(handshake);
+        }
+
+        void send(String message) {
+            out.println(message);
+        }
+
+        // 조건에 맞는 줄이 올 때까지 대기 (시간 안에 오지 않으면 null)
+        String await(Predicate<String> match) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+            for (long left = WAIT_MILLIS; left > 0; left = deadline - System.currentTimeMillis()) {
+                String line = inbox.poll(left, TimeUnit.MILLISECONDS);
+                if (line != null && match.test(line)) {
+                    return line;
+                }
+            }
+            return null;
+        }
+
+        void close() throws IOException {
+            socket.close();
+        }
+    }
+}
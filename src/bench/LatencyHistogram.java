@@ -0,0 +1,72 @@
+package bench;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 지연 시간 히스토그램 (마이크로초). 2의 거듭제곱 구간마다 32칸으로 나눠 상대 오차 약 3% 이내
+// 여러 스레드가 동시에 기록해도 되며 기록 시 할당 없음
+final class LatencyHistogram {
+    private static final int SUB_BUCKETS = 32;
+    private static final int SUB_BITS = 5;
+    private static final int RANGES = 40; // 최대 약 2^40us
+
+    private final AtomicLongArray counts = new AtomicLongArray(RANGES * SUB_BUCKETS);
+    private final AtomicLongArray summary = new AtomicLongArray(2); // [0] 개수, [1] 최댓값
+
+    void record(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(index(value));
+        summary.incrementAndGet(0);
+        long max;
+        while (value > (max = summary.get(1)) && !summary.compareAndSet(1, max, value)) {
+            // 다른 스레드가 더 큰 값을 기록했으면 다시 비교
+        }
+    }
+
+    long count() {
+        return summary.get(0);
+    }
+
+    long max() {
+        return summary.get(1);
+    }
+
+    // 백분위 값 (해당 칸의 상한)
+    long percentile(double percent) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(total * percent / 100.0);
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(upperBound(i), max());
+            }
+        }
+        return max();
+    }
+
+    String summary() {
+        return String.format("n=%d p50=%dus p90=%dus p99=%dus p99.9=%dus max=%dus",
+                count(), percentile(50), percentile(90), percentile(99), percentile(99.9), max());
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int range = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS + 1; // 1부터
+        int sub = (int) (value >>> (range - 1)) - SUB_BUCKETS;            // 0..31
+        return Math.min(range * SUB_BUCKETS + sub, RANGES * SUB_BUCKETS - 1);
+    }
+
+    private static long upperBound(int index) {
+        int range = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        if (range == 0) {
+            return sub;
+        }
+        return ((long) (SUB_BUCKETS + sub + 1) << (range - 1)) - 1;
+    }
+}
@@ -0,0 +1,206 @@
+package bench;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 화면 없이 수백 개 좌석을 흉내 내는 부하 발생기. 클라이언트와 같은 텍스트 프로토콜
+// (첫 줄 자리 번호 → "온도 설정:", "투표:", 채팅 한 줄)을 쓰며 localhost 서버 하나만 있으면 됨
+//   실행 예) java -cp out bench.LoadGenerator
+//   옵션: -Dload.host=localhost -Dload.port=12345 -Dload.seats=200 -Dload.firstSeat=1
+//         -Dload.rate=500 (전체 초당 송신 수) -Dload.seconds=30
+//         -Dload.mix=chat:60,temperature:30,vote:10 (비율)
+// 지연 시간은 "예정된 송신 시각"부터 측정하므로 서버가 밀려 송신이 늦어져도 그 지연이 빠지지 않음
+//   채팅: 송신 → 같은 구역 좌석들의 브로드캐스트 수신
+//   온도: 송신 → 요청자에게 오는 "[알림] ... 반영되었습니다" 응답
+public class LoadGenerator {
+    private static final String MARKER = "loadgen"; // 부하 발생기 채팅 식별자
+    private static final String TEMPERATURE_ACK = "모드로 요청이 반영되었습니다";
+
+    private final LatencyHistogram chatLatency = new LatencyHistogram();
+    private final LatencyHistogram temperatureLatency = new LatencyHistogram();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong votes = new AtomicLong();
+    private final AtomicLong sendFailures = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        new LoadGenerator().run(
+                System.getProperty("load.host", "localhost"),
+                Integer.getInteger("load.port", 12345),
+                Integer.getInteger("load.seats", 200),
+                Integer.getInteger("load.firstSeat", 1),
+                Integer.getInteger("load.rate", 500),
+                Integer.getInteger("load.seconds", 30),
+                parseMix(System.getProperty("load.mix", "chat:60,temperature:30,vote:10")));
+    }
+
+    // "chat:60,temperature:30,vote:10" → 100칸짜리 선택 표
+    static String[] parseMix(String spec) {
+        List<String> table = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            String kind = parts[0].trim();
+            if (!kind.equals("chat") && !kind.equals("temperature") && !kind.equals("vote")) {
+                throw new IllegalArgumentException("알 수 없는 메시지 종류: " + kind);
+            }
+            for (int i = Integer.parseInt(parts[1].trim()); i > 0; i--) {
+                table.add(kind);
+            }
+        }
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("비율이 비어 있습니다: " + spec);
+        }
+        return table.toArray(new String[0]);
+    }
+
+    void run(String host, int port, int seatCount, int firstSeat, int rate, int seconds, String[] mix) throws Exception {
+        System.out.printf("[INFO] %s:%d 에 좌석 %d개 접속, 초당 %d건, %d초%n", host, port, seatCount, rate, seconds);
+        List<Seat> seats = new ArrayList<>();
+        try {
+            for (int i = 0; i < seatCount; i++) {
+                seats.add(new Seat(host, port, String.valueOf(firstSeat + i)));
+            }
+
+            // 자기 입장 메시지를 받은 좌석만 사용 (블로킹 모드는 스레드 풀 크기만큼만 처리됨)
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (System.currentTimeMillis() < deadline && seats.stream().anyMatch(s -> !s.joined.isDone())) {
+                Thread.sleep(50);
+            }
+            List<Seat> active = seats.stream().filter(s -> s.joined.isDone()).toList();
+            System.out.printf("[INFO] 입장 완료 좌석: %d/%d%n", active.size(), seatCount);
+            if (active.isEmpty()) {
+                return;
+            }
+
+            drive(active, rate, seconds, mix);
+            Thread.sleep(1000); // 마지막 브로드캐스트 수신 대기
+        } finally {
+            for (Seat seat : seats) {
+                seat.close();
+            }
+        }
+
+        System.out.println();
+        System.out.printf("송신 %d건 (투표 %d건, 실패 %d건), 수신 %d줄%n", sent.get(), votes.get(), sendFailures.get(), received.get());
+        System.out.println("채팅 브로드캐스트 지연: " + chatLatency.summary());
+        System.out.println("온도 요청 응답 지연:   " + temperatureLatency.summary());
+    }
+
+    // 정해진 간격으로 송신 (open-loop). 늦어지면 밀린 만큼 몰아서 보내되 예정 시각은 그대로 기록
+    private void drive(List<Seat> seats, int rate, int seconds, String[] mix) throws InterruptedException {
+        Random random = new Random(42);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, rate);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long nextReport = start + TimeUnit.SECONDS.toNanos(1);
+        long lastSent = 0;
+        long lastReceived = 0;
+        long sequence = 0;
+
+        for (long intended = start; intended < end; intended += intervalNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            Seat seat = seats.get(random.nextInt(seats.size()));
+            switch (mix[random.nextInt(mix.length)]) {
+                case "chat":
+                    seat.send(MARKER + " " + seat.id + " " + (sequence++) + " " + intended);
+                    break;
+                case "temperature":
+                    seat.sendTemperature("온도 설정: " + (18 + random.nextInt(9)), intended);
+                    break;
+                default:
+                    seat.send("투표: " + (random.nextBoolean() ? "yes" : "no"));
+                    votes.incrementAndGet();
+            }
+
+            long now = System.nanoTime();
+            if (now >= nextReport) {
+                System.out.printf("[INFO] 송신 %d/s, 수신 %d줄/s, 채팅 p99 %dus%n",
+                        sent.get() - lastSent, received.get() - lastReceived, chatLatency.percentile(99));
+                lastSent = sent.get();
+                lastReceived = received.get();
+                nextReport += TimeUnit.SECONDS.toNanos(1);
+            }
+        }
+    }
+
+    // 좌석 하나: 송신은 부하 스레드, 수신은 좌석 전용 가상 스레드
+    private final class Seat {
+        final String id;
+        final Socket socket;
+        final Writer out;
+        final CompletableFuture<Void> joined = new CompletableFuture<>();
+        final Queue<Long> pendingTemperature = new ConcurrentLinkedQueue<>(); // 응답을 기다리는 온도 요청의 예정 시각
+
+        Seat(String host, int port, String id) throws IOException {
+            this.id = id;
+            this.socket = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            Thread.ofVirtual().name("load-seat-" + id).start(this::readLoop);
+            write(id + " STATE=0"); // 핸드셰이크: 자리 번호 (상태 구독 → 입장 직후 "[상태]" 줄로 입장 확인)
+        }
+
+        void send(String line) {
+            if (write(line)) {
+                sent.incrementAndGet();
+            }
+        }
+
+        void sendTemperature(String line, long intended) {
+            pendingTemperature.add(intended);
+            if (write(line)) {
+                sent.incrementAndGet();
+            } else {
+                pendingTemperature.poll();
+            }
+        }
+
+        private synchronized boolean write(String line) {
+            try {
+                out.write(line);
+                out.write('\n');
+                out.flush();
+                return true;
+            } catch (IOException e) {
+                sendFailures.incrementAndGet();
+                return false;
+            }
+        }
+
+        private void readLoop() {
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    long now = System.nanoTime();
+                    received.incrementAndGet();
+                    if (line.startsWith(MARKER + " ")) {
+                        chatLatency.record(TimeUnit.NANOSECONDS.toMicros(now - Long.parseLong(line.substring(line.lastIndexOf(' ') + 1))));
+                    } else if (line.contains(TEMPERATURE_ACK)) {
+                        Long intended = pendingTemperature.poll();
+                        if (intended != null) {
+                            temperatureLatency.record(TimeUnit.NANOSECONDS.toMicros(now - intended));
+                        }
+                    } else if (!joined.isDone() && line.startsWith("[상태] ")) {
+                        joined.complete(null);
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                // 연결 종료
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
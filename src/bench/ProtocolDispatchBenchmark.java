@@ -0,0 +1,133 @@
+package bench;
+
+import server.BinaryProtocol;
+import server.CommandHandler;
+import server.TextProtocol;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+// 메시지 하나당 해석+디스패치 비용(ns) 비교: 한글 접두사 텍스트 vs 바이너리 프레임
+// 실제 TextProtocol.dispatch / BinaryProtocol.Decoder 를 그대로 사용하고 결과는 카운터로만 소비
+//   실행 예) java -cp out bench.ProtocolDispatchBenchmark
+public class ProtocolDispatchBenchmark {
+    private static final int MESSAGES = 1_000_000;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        // 온도/투표/바람/모드 위주의 혼합 (채팅은 10%)
+        String[] lines = new String[MESSAGES];
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        for (int i = 0; i < MESSAGES; i++) {
+            byte[] frame;
+            switch (i % 10) {
+                case 0, 1, 2, 3 -> {
+                    lines[i] = TextProtocol.TEMPERATURE + " " + (18 + i % 9);
+                    frame = BinaryProtocol.encode(BinaryProtocol.OP_TEMPERATURE, 18 + i % 9);
+                }
+                case 4, 5, 6 -> {
+                    lines[i] = TextProtocol.VOTE + " " + (i % 2 == 0 ? "yes" : "no");
+                    frame = BinaryProtocol.encode(BinaryProtocol.OP_VOTE, i % 2 == 0 ? 1 : 0);
+                }
+                case 7 -> {
+                    lines[i] = TextProtocol.WIND + " 1";
+                    frame = BinaryProtocol.encode(BinaryProtocol.OP_WIND, 1);
+                }
+                case 8 -> {
+                    lines[i] = TextProtocol.MODE + " 냉방";
+                    frame = BinaryProtocol.encode(BinaryProtocol.OP_MODE, 0);
+                }
+                default -> {
+                    lines[i] = "12: 너무 추워요";
+                    frame = BinaryProtocol.encodeText(BinaryProtocol.OP_CHAT, "12: 너무 추워요");
+                }
+            }
+            frames.writeBytes(frame);
+        }
+        ByteBuffer frameBuffer = ByteBuffer.wrap(frames.toByteArray());
+
+        CountingHandler handler = new CountingHandler();
+        BinaryProtocol.Decoder decoder = new BinaryProtocol.Decoder();
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String line : lines) {
+                TextProtocol.dispatch(line, handler);
+            }
+            long text = System.nanoTime() - start;
+
+            frameBuffer.clear();
+            start = System.nanoTime();
+            decoder.decode(frameBuffer, handler);
+            long binary = System.nanoTime() - start;
+
+            System.out.printf("round %2d  text %.1f ns/msg  binary %.1f ns/msg%n",
+                    round, (double) text / MESSAGES, (double) binary / MESSAGES);
+        }
+        System.out.println("(checksum " + handler.sum + ")");
+    }
+
+    // 디스패치 결과를 합산만 해서 JIT이 호출을 제거하지 못하게 함
+    private static final class CountingHandler implements CommandHandler {
+        long sum;
+
+        @Override
+        public void onAdminCall(String message) {
+            sum += message.length();
+        }
+
+        @Override
+        public void onNotice(String notice) {
+            sum += notice.length();
+        }
+
+        @Override
+        public void onTemperature(int temperature) {
+            sum += temperature;
+        }
+
+        @Override
+        public void onVote(boolean agree, int voteId) {
+            sum += agree ? 1 : 2;
+        }
+
+        @Override
+        public void onModeChange(String mode) {
+            sum += mode.length();
+        }
+
+        @Override
+        public void onWindSpeed(int delta) {
+            sum += delta;
+        }
+
+        @Override
+        public void onChatHistory(long beforeId, String zoneName) {
+            sum += beforeId;
+        }
+
+        @Override
+        public void onStateRequest(long lastSeen) {
+            sum += lastSeen;
+        }
+
+        @Override
+        public void onMetricsRequest() {
+            sum++;
+        }
+
+        @Override
+        public void onAdminControl(String command) {
+            sum += command.length();
+        }
+
+        @Override
+        public void onChat(String message) {
+            sum += message.length();
+        }
+
+        @Override
+        public void onMalformed(String reply) {
+            sum--;
+        }
+    }
+}
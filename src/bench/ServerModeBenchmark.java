@@ -0,0 +1,183 @@
+package bench;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 서버 실행 모드별(blocking / virtual / nio) 동시 접속 좌석 수와 초당 처리 메시지 수 비교
+// 각 모드는 별도 JVM에서 서버를 띄워 정적 상태가 섞이지 않게 측정
+//   실행 예) java -cp out bench.ServerModeBenchmark blocking virtual nio
+//   옵션: -Dbench.seats=200 -Dbench.senders=10 -Dbench.messages=100
+public class ServerModeBenchmark {
+    private static final String MARKER = "bench-msg"; // 벤치마크 메시지 식별자
+    private static final String[] RATE_KINDS = {"chat", "temperature", "vote", "control", "sync"}; // SeatRateLimiter의 명령 종류
+
+    public static void main(String[] args) throws Exception {
+        int seats = Integer.getInteger("bench.seats", 200);
+        int senders = Integer.getInteger("bench.senders", 10);
+        int messages = Integer.getInteger("bench.messages", 100);
+        String[] modes = args.length > 0 ? args : new String[]{"blocking", "virtual", "nio"};
+
+        List<String> report = new ArrayList<>();
+        int port = 20000;
+        List<String> fanout = new ArrayList<>();
+        for (String mode : modes) {
+            File log = File.createTempFile("aircon-" + mode, ".log");
+            log.deleteOnExit();
+            Process server = startServer(mode, port, log);
+            try {
+                waitForPort(port);
+                report.add(mode + "\t" + run(port, seats, senders, messages));
+            } finally {
+                // 정상 종료 신호로 멈춰야 서버가 종료 시 브로드캐스트 비용 요약을 남김
+                server.destroy();
+                if (!server.waitFor(5, TimeUnit.SECONDS)) {
+                    server.destroyForcibly().waitFor();
+                }
+            }
+            for (String line : Files.readAllLines(log.toPath(), StandardCharsets.UTF_8)) {
+                if (line.contains("브로드캐스트 ")) {
+                    fanout.add(mode + "\t" + line);
+                }
+            }
+            port++;
+        }
+
+        System.out.println();
+        System.out.println("모드\t접속 좌석(처리됨/시도)\t수신 메시지/s\t전달 메시지/s");
+        report.forEach(System.out::println);
+        System.out.println();
+        fanout.forEach(System.out::println);
+    }
+
+    // -Daircon.* 속성은 서버 JVM에 그대로 전달 (예: -Daircon.outbound.capacity=4096)
+    // 좌석별 요청 한도는 따로 주지 않으면 끔 (송신 좌석이 메시지를 연달아 보내므로 켜 두면 대부분 버려짐)
+    private static Process startServer(String mode, int port, File log) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        for (String kind : RATE_KINDS) {
+            if (System.getProperty("aircon.rate." + kind + "PerSecond") == null) {
+                command.add("-Daircon.rate." + kind + "PerSecond=0");
+            }
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("aircon."))
+                .forEach(name -> command.add("-D" + name + "=" + System.getProperty(name)));
+        command.add("-Dstdout.encoding=UTF-8");
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), "server.ServerMain", mode, String.valueOf(port)));
+        return new ProcessBuilder(command)
+                .redirectOutput(log)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    private static void waitForPort(int port) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            try {
+                new Socket("localhost", port).close(); // 접속되면 바로 닫음
+                return;
+            } catch (IOException e) {
+                Thread.sleep(100);
+            }
+        }
+        throw new IllegalStateException("서버가 시작되지 않았습니다: " + port);
+    }
+
+    private static String run(int port, int seatCount, int senderCount, int messagesPerSender) throws Exception {
+        AtomicLong delivered = new AtomicLong();
+        List<Seat> seats = new ArrayList<>();
+        try {
+            for (int i = 1; i <= seatCount; i++) {
+                seats.add(new Seat(port, String.valueOf(i), delivered));
+            }
+
+            // 자기 입장 메시지를 받은 좌석 = 서버가 실제로 처리 중인 좌석
+            long deadline = System.currentTimeMillis() + 5000;
+            while (System.currentTimeMillis() < deadline && seats.stream().anyMatch(s -> !s.joined.isDone())) {
+                Thread.sleep(50);
+            }
+            List<Seat> served = seats.stream().filter(s -> s.joined.isDone()).toList();
+            if (served.isEmpty()) {
+                return "0/" + seatCount + "\t-\t-";
+            }
+
+            List<Seat> senders = served.subList(0, Math.min(senderCount, served.size()));
+            long expected = (long) senders.size() * messagesPerSender * served.size();
+            long start = System.nanoTime();
+            for (Seat sender : senders) {
+                Thread.ofVirtual().start(() -> {
+                    for (int m = 0; m < messagesPerSender; m++) {
+                        sender.send(MARKER + " " + sender.id + " " + m);
+                    }
+                });
+            }
+            // 모두 전달되거나, 송신 대기열 초과로 버려져 2초간 더 늘지 않으면 종료
+            long timeout = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            long lastCount = -1;
+            long lastChange = System.nanoTime();
+            long end = lastChange;
+            while (delivered.get() < expected && System.nanoTime() < timeout
+                    && System.nanoTime() - lastChange < TimeUnit.SECONDS.toNanos(2)) {
+                Thread.sleep(5);
+                long count = delivered.get();
+                if (count != lastCount) {
+                    lastCount = count;
+                    lastChange = end = System.nanoTime();
+                }
+            }
+            if (delivered.get() >= expected) {
+                end = System.nanoTime();
+            }
+            double seconds = (end - start) / 1e9;
+            long inbound = (long) senders.size() * messagesPerSender;
+            return String.format("%d/%d\t%.0f\t%.0f%s", served.size(), seatCount,
+                    inbound / seconds, delivered.get() / seconds,
+                    delivered.get() < expected ? " (미전달: " + (expected - delivered.get()) + "/" + expected + ")" : "");
+        } finally {
+            for (Seat seat : seats) {
+                seat.close();
+            }
+        }
+    }
+
+    // 좌석 하나 = 소켓 하나 + 가상 스레드 수신기
+    private static final class Seat {
+        private final String id;
+        private final Socket socket;
+        private final PrintWriter out;
+        private final CompletableFuture<Void> joined = new CompletableFuture<>();
+
+        Seat(int port, String id, AtomicLong delivered) throws IOException {
+            this.id = id;
+            this.socket = new Socket("localhost", port);
+            this.out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Thread.ofVirtual().start(() -> {
+                try {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        if (line.startsWith(MARKER)) {
+                            delivered.incrementAndGet();
+                        } else if (line.startsWith("[상태] ")) {  // 입장 직후 자신에게만 오는 상태 줄
+                            joined.complete(null);
+                        }
+                    }
+                } catch (IOException ignored) {
+                }
+            });
+            out.println(id + " STATE=0");  // 상태 구독: 입장 알림은 묶여서 올 수 있으므로 상태 줄로 입장 확인
+        }
+
+        void send(String message) {
+            out.println(message);
+        }
+
+        void close() throws IOException {
+            socket.close();
+        }
+    }
+}
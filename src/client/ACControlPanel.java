@@ -21,6 +21,7 @@ public class ACControlPanel extends JPanel {
     private JButton decreaseWindSpeedButton; // 바람 세기 감소 버튼
 
     private int targetTemp = 25;        // 설정 온도 (초기값: 25°C)
+    private boolean airKnown = false;   // 서버가 실제 공기 온도를 보내는지 (안 보내면 현재 온도 = 설정 온도)
     private final int MAX_TEMP = 26;    // 설정 가능한 최대 온도
     private final int MIN_TEMP = 18;    // 설정 가능한 최소 온도
     private String mode = "냉방";       // 현재 모드 (초기값: 냉방)
@@ -135,17 +136,30 @@ public class ACControlPanel extends JPanel {
 
     // 설정 온도 및 현재 온도 UI 업데이트 메소드
     public void updateCurrentTemperature(int newTemp) {
+        if (newTemp >= MIN_TEMP && newTemp <= MAX_TEMP) {
+            targetTemp = newTemp;  // 온도 상승/하강 버튼이 서버 상태 기준으로 동작하도록 동기화
+        }
         targetTempLabel.setText("설정 온도: " + newTemp + "°C");  // 설정 온도 UI 업데이트
-        currentTempLabel.setText("현재 온도: " + newTemp + "°C");  // 현재 온도 UI 업데이트
+        if (!airKnown) {
+            currentTempLabel.setText("현재 온도: " + newTemp + "°C");  // 현재 온도 UI 업데이트
+        }
+    }
+
+    // 실제 공기 온도 UI 업데이트 (설정 온도를 향해 천천히 움직임)
+    public void updateAirTemperature(double air) {
+        airKnown = true;
+        currentTempLabel.setText(String.format("현재 온도: %.1f°C", air));
     }
 
     // 모드 업데이트 메소드
     public void updateMode(String newMode) {
+        mode = newMode;  // 모드 변경 버튼이 서버 상태에서 토글하도록 동기화
         modeLabel.setText("모드: " + newMode);  // 모드 UI 업데이트
     }
 
     // 바람 세기 업데이트 메소드
     public void updateWindSpeed(int newWindSpeed) {
+        windSpeed = newWindSpeed;  // 증감 버튼이 서버 상태 기준으로 동작하도록 동기화
         windSpeedLabel.setText("바람 세기: " + newWindSpeed + "단");  // 바람 세기 UI 업데이트
     }
 }
\ No newline at end of file
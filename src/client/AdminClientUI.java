@@ -2,10 +2,6 @@ package client;
 
 import javax.swing.*;
 import java.awt.*;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.IOException;
-import server.AirConditionerManager;
 
 public class AdminClientUI {
 
@@ -29,7 +25,7 @@ public class AdminClientUI {
 
         // 버튼 생성
         JButton announceButton = new JButton("공지 전송");
-        JButton setModeButton = new JButton("모드 변경 (다수결/평균)");
+        JButton setModeButton = new JButton("모드 변경 (다수결/평균/중앙값/절사평균/쾌적)");
         JButton setSeasonButton = new JButton("계절 변경 (여름/겨울)");
         JButton setTemperatureButton = new JButton("온도 직접 설정");
         JButton sendMessageButton = new JButton("투표 중재 메시지");
@@ -49,44 +45,8 @@ public class AdminClientUI {
 
             ClientManager clientManager = new ClientManager("localhost", 12345, logArea, "admin", chatPanel, acControlPanel);  // 클라이언트 관리자 생성
 
-            // 메시지 수신 쓰레드
-            new Thread(() -> {
-                try {
-                    BufferedReader in = new BufferedReader(new InputStreamReader(clientManager.getSocket().getInputStream()));
-                    String input;
-                    while ((input = in.readLine()) != null) {
-                        final String message = input;
-                        // 메시지에 따라 다르게 처리
-                        if (message.startsWith("[관리자 호출 요청]")) {
-                            SwingUtilities.invokeLater(() -> {
-                                synchronized (logArea) {
-                                    logArea.append(message + "\n");
-                                    logArea.setCaretPosition(logArea.getDocument().getLength());
-                                }
-                            });
-                        } else if (message.startsWith("온도 변경:")) {
-                            // 온도 변경 메시지 처리
-                            SwingUtilities.invokeLater(() -> {
-                                String newTemp = message.split(":")[1].trim();
-                                acControlPanel.updateCurrentTemperature(Integer.parseInt(newTemp));
-                            });
-                        } else {
-                            // 채팅 메시지 처리
-                            SwingUtilities.invokeLater(() -> {
-                                chatPanel.appendMessage(message);  // 채팅창에 메시지 추가
-                                synchronized (logArea) {
-                                    logArea.append(message + "\n");
-                                    logArea.setCaretPosition(logArea.getDocument().getLength());
-                                }
-                            });
-                        }
-                    }
-                } catch (IOException e) {
-                    JOptionPane.showMessageDialog(frame, "서버 연결이 종료되었습니다.", "오류", JOptionPane.ERROR_MESSAGE);
-                }
-            }).start();
-
-            // === 메시지 수신 쓰레드 끝 ===
+            // 메시지 수신은 ClientManager가 담당 (같은 소켓을 두 스레드가 읽지 않도록 별도 수신 스레드 없음)
+            // 수신 메시지는 프레임마다 묶여 logArea에 추가됨
 
             // 공지 전송
             announceButton.addActionListener(e -> {
@@ -98,9 +58,9 @@ public class AdminClientUI {
                 }
             });
 
-            // 모드 변경 (다수결/평균)
+            // 모드 변경 (다수결/평균/중앙값/절사평균/쾌적)
             setModeButton.addActionListener(e -> {
-                String[] options = {"다수결", "평균"};
+                String[] options = {"다수결", "평균", "중앙값", "절사평균", "쾌적"};
                 int choice = JOptionPane.showOptionDialog(
                         frame,
                         "에어컨 모드를 선택하세요:",
@@ -112,11 +72,10 @@ public class AdminClientUI {
                         options[0]
                 );
                 if (choice != -1) {
-                    String selectedMode = options[choice].equals("다수결") ? "다수결" : "평균";
+                    String selectedMode = options[choice];
 
-                    // 모드 변경 시 서버에 반영
-                    AirConditionerManager.setModeChoice(selectedMode);
-                    clientManager.sendMessage("관리자 모드 변경: " + selectedMode);
+                    // 모든 구역의 온도 결정 방식을 서버에서 한 번에 변경 (결과는 "[관리자 제어 완료]" 한 줄로 돌아옴)
+                    clientManager.sendMessage("관리자 제어: 전체 choice=" + selectedMode);
                 }
             });
 
@@ -135,7 +94,7 @@ public class AdminClientUI {
                 );
                 if (choice != -1) {
                     String selectedSeason = options[choice].equals("여름") ? "summer" : "winter";
-                    AirConditionerManager.changeSeason(selectedSeason);
+                    clientManager.sendMessage("관리자 제어: 전체 season=" + selectedSeason);
                     clientManager.sendMessage("[관리자] 계절 변경: " + (selectedSeason.equals("summer") ? "여름" : "겨울"));
                 }
             });
@@ -149,7 +108,7 @@ public class AdminClientUI {
                         if (temperature < 18 || temperature > 26) {
                             JOptionPane.showMessageDialog(frame, "온도는 18~26°C 사이여야 합니다.", "입력 오류", JOptionPane.ERROR_MESSAGE);
                         } else {
-                            clientManager.sendMessage("관리자 온도 설정: " + temperature);
+                            clientManager.sendMessage("관리자 제어: 전체 temperature=" + temperature);
                         }
                     } catch (NumberFormatException ex) {
                         JOptionPane.showMessageDialog(frame, "유효한 숫자를 입력하세요.", "입력 오류", JOptionPane.ERROR_MESSAGE);
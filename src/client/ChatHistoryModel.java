@@ -0,0 +1,92 @@
+package client;
+
+import javax.swing.*;
+import java.util.List;
+
+// 채팅 화면용 고정 크기 링 버퍼 모델. 가득 차면 새 줄은 가장 오래된 줄을, 과거 기록은 가장 최근 줄을 밀어냄
+// 추가/삭제 비용이 화면에 쌓인 줄 수와 관계없이 일정하고, JList는 보이는 줄만 그림
+// 줄마다 서버가 붙인 채팅 번호를 함께 보관 (0: 공지·입장 알림처럼 번호 없는 줄), 과거 기록은 이 번호로 이어서 요청
+public class ChatHistoryModel extends AbstractListModel<String> {
+    private static final long serialVersionUID = 1L;
+
+    private final String[] lines;
+    private final long[] ids;
+    private int head = 0; // 가장 오래된 줄의 위치
+    private int size = 0;
+
+    public ChatHistoryModel(int capacity) {
+        this.lines = new String[Math.max(1, capacity)];
+        this.ids = new long[lines.length];
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        return lines[(head + index) % lines.length];
+    }
+
+    // 화면에 남아 있는 가장 오래된 채팅 번호 (0: 번호 있는 줄이 없음)
+    public long oldestChatId() {
+        for (int i = 0; i < size; i++) {
+            long id = ids[(head + i) % lines.length];
+            if (id > 0) {
+                return id;
+            }
+        }
+        return 0;
+    }
+
+    // 새 줄들을 맨 아래에 추가 (newIds: 줄마다 채팅 번호, 변경 알림은 삭제/추가 각 한 번)
+    public void appendAll(List<String> newLines, List<Long> newIds) {
+        int count = newLines.size();
+        if (count == 0) {
+            return;
+        }
+        int skip = Math.max(0, count - lines.length); // 한 번에 용량보다 많이 오면 마지막 줄들만 보관
+        int evicted = Math.max(0, size + count - skip - lines.length);
+        if (evicted > 0) {
+            for (int i = 0; i < evicted; i++) {
+                lines[(head + i) % lines.length] = null;
+            }
+            head = (head + evicted) % lines.length;
+            size -= evicted;
+            fireIntervalRemoved(this, 0, evicted - 1);
+        }
+        int first = size;
+        for (int i = skip; i < count; i++) {
+            lines[(head + size) % lines.length] = newLines.get(i);
+            ids[(head + size) % lines.length] = newIds.get(i);
+            size++;
+        }
+        fireIntervalAdded(this, first, size - 1);
+    }
+
+    // 과거 기록(오래된 것부터)을 맨 위에 추가, 넣은 줄 수를 반환
+    public int prependAll(List<String> olderLines, List<Long> olderIds) {
+        int count = Math.min(olderLines.size(), lines.length);
+        if (count == 0) {
+            return 0;
+        }
+        int evicted = Math.max(0, size + count - lines.length);
+        if (evicted > 0) {
+            for (int i = size - evicted; i < size; i++) {
+                lines[(head + i) % lines.length] = null;
+            }
+            size -= evicted;
+            fireIntervalRemoved(this, size, size + evicted - 1);
+        }
+        int offset = olderLines.size() - count; // 용량보다 많으면 가장 최근 쪽만 보관
+        head = Math.floorMod(head - count, lines.length);
+        for (int i = 0; i < count; i++) {
+            lines[(head + i) % lines.length] = olderLines.get(offset + i);
+            ids[(head + i) % lines.length] = olderIds.get(offset + i);
+        }
+        size += count;
+        fireIntervalAdded(this, 0, count - 1);
+        return count;
+    }
+}
@@ -3,21 +3,55 @@ package client;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ChatPanel extends JPanel {
-    private JTextArea chatArea; // 채팅 메시지를 표시하는 텍스트 영역
+    // 화면에 보관하는 최대 줄 수 (-Daircon.chat.viewLines). 넘치면 오래된 줄부터 버리고, 위로 스크롤하면 서버에서 다시 가져옴
+    private static final int VIEW_LINES = Integer.getInteger("aircon.chat.viewLines", 500);
+
+    private final ChatHistoryModel history = new ChatHistoryModel(VIEW_LINES); // 채팅 줄 링 버퍼
+    private JList<String> chatList; // 채팅 메시지를 표시하는 목록 (보이는 줄만 그림)
+    private JScrollPane chatScroll;
     private JTextField inputField; // 사용자 입력을 받는 텍스트 필드
     private JButton sendButton; // 메시지 전송 버튼
     private ClientManager clientManager; // 서버와의 통신을 관리하는 클라이언트 매니저
 
+    // 채팅 번호와 과거 기록 요청 상태 (EDT에서만 접근)
+    private long newestChatId = 0;           // 지금까지 화면에 추가한 가장 최근 채팅 번호 (이하 번호는 이미 받은 채팅)
+    private boolean historyPending = false;  // 응답을 기다리는 중
+    private boolean historyExhausted = false; // 서버에 더 오래된 기록이 없음
+    private int lastScrollValue = 0;         // 직전 스크롤 위치
+    private boolean scrollingUp = false;     // 마지막으로 움직인 방향이 위쪽인지
+
     // 채팅 패널의 UI를 설정
     public ChatPanel(String seatNumber) {
         setLayout(new BorderLayout());  // 레이아웃 설정
 
         // 채팅창
-        chatArea = new JTextArea();  // 채팅 내용을 표시할 텍스트 영역
-        chatArea.setEditable(false); // 채팅 영역은 읽기 전용
-        add(new JScrollPane(chatArea), BorderLayout.CENTER); // 텍스트 영역을 스크롤 가능하게 추가
+        chatList = new JList<>(history) {
+            @Override
+            public String getToolTipText(MouseEvent event) {
+                int index = locationToIndex(event.getPoint());  // 잘린 긴 줄은 툴팁으로 전체 표시
+                return index >= 0 ? getModel().getElementAt(index) : null;
+            }
+        };
+        chatList.setToolTipText("");
+        chatList.setFixedCellHeight(chatList.getFontMetrics(chatList.getFont()).getHeight() + 2); // 줄 높이 고정: 전체 줄을 재지 않음
+        chatList.setFixedCellWidth(1);  // 너비는 화면 폭을 따름
+        chatScroll = new JScrollPane(chatList, ScrollPaneConstants.VERTICAL_SCROLLBAR_ALWAYS,
+                ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+        chatScroll.getVerticalScrollBar().addAdjustmentListener(e -> {
+            if (e.getValue() != lastScrollValue) {
+                scrollingUp = e.getValue() < lastScrollValue;
+                lastScrollValue = e.getValue();
+            }
+            if (!e.getValueIsAdjusting() && scrollingUp && e.getValue() == 0 && isScrollable()) {
+                requestOlderHistory();  // 사용자가 맨 위까지 올리면 과거 기록 요청 (줄이 적어 스크롤할 수 없을 때는 요청하지 않음)
+            }
+        });
+        add(chatScroll, BorderLayout.CENTER); // 목록을 스크롤 가능하게 추가
 
         // 입력창 및 버튼
         inputField = new JTextField(); // 메시지 입력을 위한 텍스트 필드
@@ -39,8 +73,77 @@ public class ChatPanel extends JPanel {
 
     // 새로운 메시지를 채팅 창에 추가하는 메소드
     public void appendMessage(String message) {
-        chatArea.append(message + "\n");  // 채팅창에 메시지 추가
-        chatArea.setCaretPosition(chatArea.getDocument().getLength()); // 스크롤을 맨 아래로 이동
+        appendMessages(List.of(message), List.of(0L));
+    }
+
+    // 여러 줄을 한 번에 추가 (ids: 줄마다 채팅 번호, 0이면 번호 없는 줄). 맨 아래를 보고 있었다면 계속 맨 아래를 보여줌
+    // 이미 받은 번호의 채팅은 건너뜀 (재접속 직후 다시 받은 채팅이 화면의 줄과 겹친 경우)
+    public void appendMessages(List<String> messages, List<Long> ids) {
+        List<String> fresh = new ArrayList<>(messages.size());
+        List<Long> freshIds = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            long id = ids.get(i);
+            if (id > 0) {
+                if (id <= newestChatId) {
+                    continue;
+                }
+                newestChatId = id;
+            }
+            fresh.add(messages.get(i));
+            freshIds.add(id);
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+        boolean following = isAtBottom();
+        history.appendAll(fresh, freshIds);
+        if (following) {
+            chatList.ensureIndexIsVisible(history.getSize() - 1);  // 스크롤을 맨 아래로 이동
+        }
+    }
+
+    // 서버가 보낸 과거 기록 한 페이지 (오래된 것부터)를 맨 위에 추가. next: 다음 요청 번호 (0이면 더 없음)
+    // 요청은 화면의 가장 오래된 채팅 번호 이전부터이므로, 그 번호 이상은 (응답 사이에 바뀐 경우) 건너뜀
+    public void prependHistory(List<String> olderMessages, List<Long> ids, long next) {
+        historyPending = false;
+        if (olderMessages.isEmpty() && next != 0) {
+            return;  // 서버가 요청을 미룸 (요청 한도): 다음에 다시 스크롤하면 재요청
+        }
+        historyExhausted = next == 0;
+
+        long oldestShown = history.oldestChatId();
+        int missing = 0;
+        while (missing < ids.size() && (oldestShown == 0 || ids.get(missing) < oldestShown)) {
+            missing++;
+        }
+        JScrollBar bar = chatScroll.getVerticalScrollBar();
+        int added = history.prependAll(olderMessages.subList(0, missing), ids.subList(0, missing));
+        // 보고 있던 줄이 그대로 보이도록 추가된 줄 높이만큼 스크롤 위치 보정
+        bar.setValue(bar.getValue() + added * chatList.getFixedCellHeight());
+    }
+
+    // 연결이 바뀜: 이전 연결의 요청은 응답이 오지 않고, 새 서버에는 더 오래된 기록이 있을 수 있음
+    public void resetHistoryPaging() {
+        historyPending = false;
+        historyExhausted = false;
+    }
+
+    private void requestOlderHistory() {
+        if (historyPending || historyExhausted || clientManager == null) {
+            return;
+        }
+        historyPending = true;
+        clientManager.sendMessage("채팅 기록 요청: " + history.oldestChatId());  // 화면의 가장 오래된 채팅 이전 (0: 가장 최근부터)
+    }
+
+    private boolean isScrollable() {
+        JScrollBar bar = chatScroll.getVerticalScrollBar();
+        return bar.getMaximum() - bar.getMinimum() > bar.getVisibleAmount();
+    }
+
+    private boolean isAtBottom() {
+        JScrollBar bar = chatScroll.getVerticalScrollBar();
+        return bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - chatList.getFixedCellHeight();
     }
 
     // 클라이언트 매니저 설정 메소드
@@ -54,9 +157,4 @@ public class ChatPanel extends JPanel {
             clientManager.sendMessage(message); // 메시지를 서버로 전송
         }
     }
-
-    // 채팅 영역을 반환하는 메소드
-    public JTextArea getChatArea() {
-        return chatArea;
-    }
 }
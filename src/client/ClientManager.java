@@ -2,86 +2,327 @@ package client;
 
 import javax.swing.*;
 import java.io.*;
+import java.lang.reflect.InvocationTargetException;
 import java.net.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ClientManager {
-    private Socket socket; // 서버와의 연결을 위한 소켓
-    private PrintWriter out; // 서버로 메시지를 전송할 PrintWriter
+    private static final long RECONNECT_DELAY_MILLIS = 2000; // 연결이 끊겼을 때 다시 시도하는 간격
+    private static final long RESYNC_INTERVAL_MILLIS = 1000; // 빠진 상태를 다시 요청하는 최소 간격
+    private static final long REDIRECT_BACKOFF_MILLIS = 250; // 노드 이동 안내가 이어질 때 기다리는 첫 간격 (두 배씩, 최대 RECONNECT_DELAY_MILLIS)
+    private static final String CHAT_LINE = "[채팅] ";        // 실시간 채팅 "[채팅] <번호> <내용>"
+    private static final String REPLAY_LINE = "[채팅 재생] "; // 접속 직후 서버가 다시 보내는 최근 채팅
+    private static final String HISTORY_LINE = "[채팅 기록] ";
+    private static final String HISTORY_END = "[채팅 기록 끝] ";
+    private static final String ADMIN_TOKEN = System.getProperty("aircon.admin.token", ""); // 관리자 인증 토큰
+    private static final String REDIRECT = "[노드 이동] "; // 클러스터: 자리의 구역을 맡은 노드 주소 (바로 그 노드로 다시 접속)
+
+    // 접속할 서버 후보 "host:port" (-Daircon.servers="host:port,host:port,...", 없으면 생성자의 주소 하나)
+    // 연결이 끊겼는데 다시 연결할 수 없으면 다음 후보로 넘어감 (클러스터의 다른 노드)
+    private final List<String> servers = new ArrayList<>();
+    private int serverIndex = 0;
+    private volatile String host;
+    private volatile int port;
+    private volatile boolean redirected = false; // 노드 이동 안내를 받아 기다리지 않고 다시 접속
+    private int redirects = 0; // 연속으로 받은 노드 이동 안내 수 (접속이 받아들여지면 0, 수신 스레드에서만 접근)
+    private final String seatNumber;
+    private volatile Socket socket; // 서버와의 연결을 위한 소켓
+    private volatile PrintWriter out; // 서버로 메시지를 전송할 PrintWriter
     private BufferedReader in; // 서버에서 메시지를 받을 BufferedReader
-    private JTextArea messageDisplayArea; // 사용자에게 메시지를 표시하는 영역
+    private JTextArea messageDisplayArea; // 수신 메시지를 모두 기록하는 영역 (관리자 로그, 없으면 null)
     private ChatPanel chatPanel; // 채팅 메시지를 표시하는 패널
     private ACControlPanel acControlPanel; // 에어컨 제어 패널
 
     // 추가된 변수: 메시지 수신 스레드가 실행 중인지 확인하는 변수
     private boolean isReceiverThreadRunning = false;
+    private volatile boolean closed = false; // close() 호출 후에는 다시 연결하지 않음
+
+    // 수신 메시지를 모아 두었다가 프레임 단위로 화면에 반영
+    private final Queue<String> inbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean pumpScheduled = new AtomicBoolean(); // 이번 프레임 반영이 예약되어 있는지
+    private final Timer uiPump = new Timer(16, e -> drainInbox());  // 약 60Hz
+    private List<String> pendingHistory = new ArrayList<>();        // 받는 중인 과거 채팅 기록 (EDT에서만 접근)
+    private List<Long> pendingHistoryIds = new ArrayList<>();
+    private long lastChatId = 0; // 마지막으로 받은 채팅 번호 (재접속 시 이후만 요청, 수신 스레드에서만 접근)
+
+    // 서버 구역 상태 (버전 순서대로 적용, 재접속 시 마지막 버전을 알려 빠진 변경분만 받음)
+    private final ClimateView climate = new ClimateView();
+    private long resyncRequestedAt = 0; // 빠진 버전을 마지막으로 다시 요청한 시각 (ms, 0: 요청 안 함, 수신 스레드에서만 접근)
 
     // 생성자: 클라이언트 소켓을 열고, 메시지를 수신하는 스레드를 시작
     public ClientManager(String host, int port, JTextArea messageDisplayArea, String seatNumber, ChatPanel chatPanel, ACControlPanel acControlPanel) throws IOException {
+        this.host = host;
+        this.port = port;
+        this.seatNumber = seatNumber;
+        for (String server : System.getProperty("aircon.servers", host + ":" + port).split(",")) {
+            servers.add(server.trim());
+        }
         this.messageDisplayArea = messageDisplayArea;
         this.chatPanel = chatPanel;
         this.acControlPanel = acControlPanel;
 
-        socket = new Socket(host, port);  // 서버에 연결
-        out = new PrintWriter(socket.getOutputStream(), true);  // 서버로 메시지를 보낼 준비
-        in = new BufferedReader(new InputStreamReader(socket.getInputStream()));  // 서버에서 메시지를 읽을 준비
+        connectAny();  // 서버에 연결하고 자리 번호 전송
+        startMessageReceiver();  // 서버에서 오는 메시지를 실시간으로 받기 위한 수신 스레드 시작
+    }
 
-        out.println(seatNumber);  // 서버에 자리 번호를 전송
+    // 서버에 연결하고 핸드셰이크 전송: 자리 번호와 마지막으로 본 상태 버전 (처음이면 0 → 전체 상태),
+    // 마지막으로 받은 채팅 번호 (처음이면 0 → 서버가 최근 채팅 몇 개를 보냄, 이후 실시간 채팅에도 번호가 붙음)
+    // 관리자는 -Daircon.admin.token 이 있으면 인증 토큰도 함께 보냄 (토큰이 설정된 서버는 없으면 관리자 접속을 거부)
+    private void connect() throws IOException {
+        Socket newSocket = new Socket(host, port);  // 서버에 연결
+        in = new BufferedReader(new InputStreamReader(newSocket.getInputStream()));  // 서버에서 메시지를 읽을 준비
+        out = new PrintWriter(newSocket.getOutputStream(), true);  // 서버로 메시지를 보낼 준비
+        socket = newSocket;
+        resyncRequestedAt = 0;
+        out.println(seatNumber + " STATE=" + climate.version()
+                + " CHAT=" + lastChatId
+                + (seatNumber.equalsIgnoreCase("admin") && !ADMIN_TOKEN.isEmpty() ? " AUTH=" + ADMIN_TOKEN : ""));  // 서버에 자리 번호를 전송
+    }
 
-        startMessageReceiver();  // 서버에서 오는 메시지를 실시간으로 받기 위한 수신 스레드 시작
+    // 후보를 차례로 시도해 처음 열리는 서버에 연결
+    private void connectAny() throws IOException {
+        useServer(serverIndex);
+        IOException failure = null;
+        for (int i = 0; i < servers.size(); i++) {
+            try {
+                connect();
+                return;
+            } catch (IOException e) {
+                failure = e;
+                useServer(serverIndex + 1);
+            }
+        }
+        throw failure;
+    }
+
+    private void useServer(int index) {
+        serverIndex = index % servers.size();
+        follow(servers.get(serverIndex));
+    }
+
+    // "host:port" 로 접속 대상 변경
+    private void follow(String address) {
+        int colon = address.lastIndexOf(':');
+        host = address.substring(0, colon);
+        port = Integer.parseInt(address.substring(colon + 1).trim());
     }
 
     // 메시지를 수신하고 처리하는 메소드
+    // 수신 스레드는 대기열에 넣기만 하고, 화면 반영은 한 프레임(약 16ms)에 한 번 EDT에서 묶어서 처리
+    // 연결이 끊기면 close() 전까지 일정 간격으로 다시 연결
     public void startMessageReceiver() {
         // 메시지 수신 스레드가 실행되지 않으면 실행
         if (!isReceiverThreadRunning) {
             isReceiverThreadRunning = true;
+            uiPump.setRepeats(false);
             new Thread(() -> {
-                try {
-                    String incomingMessage;
-                    while ((incomingMessage = in.readLine()) != null) {  // 서버로부터 메시지를 계속해서 읽음
-                        final String message = incomingMessage;  // 수신된 메시지를 final로 선언하여 람다에서 사용할 수 있게 함
-                        SwingUtilities.invokeLater(() -> {  // UI 스레드에서 처리하도록 SwingUtilities.invokeLater 사용
-                            // 채팅 메시지 수신 처리
-                            if (this.chatPanel != null) {
-                                this.chatPanel.appendMessage(message);  // 채팅창에 메시지를 추가
+                while (!closed) {
+                    try {
+                        String incomingMessage;
+                        while ((incomingMessage = in.readLine()) != null) {  // 서버로부터 메시지를 계속해서 읽음
+                            if (incomingMessage.startsWith(REDIRECT)) {
+                                follow(incomingMessage.substring(REDIRECT.length()));  // 구역을 맡은 노드로 옮겨 접속
+                                redirected = true;
+                                redirects++;
+                                socket.close();
+                                break;
                             }
-
-                            // 온도, 모드, 바람 세기 관련 메시지 처리
-                            if (message.startsWith("온도 변경:")) {
-                                String newTemp = message.split(":")[1].trim();
-                                acControlPanel.updateCurrentTemperature(Integer.parseInt(newTemp));  // 에어컨 온도 업데이트
-                            } else if (message.startsWith("모드 변경:")) {
-                                String newMode = message.split(":")[1].trim();
-                                acControlPanel.updateMode(newMode);  // 에어컨 모드 업데이트
-                            } else if (message.startsWith("바람 세기 변경:")) {
-                                String newWindSpeed = message.split(":")[1].trim();
-                                acControlPanel.updateWindSpeed(Integer.parseInt(newWindSpeed));  // 바람 세기 업데이트
+                            redirects = 0;  // 안내가 아닌 메시지: 이 노드가 받아들임
+                            if (ClimateView.isStateLine(incomingMessage)) {
+                                applyState(incomingMessage);
+                            } else {
+                                if (incomingMessage.startsWith(CHAT_LINE)) {
+                                    lastChatId = Math.max(lastChatId, chatId(incomingMessage.substring(CHAT_LINE.length())));
+                                } else if (incomingMessage.startsWith(REPLAY_LINE)) {
+                                    lastChatId = Math.max(lastChatId, chatId(incomingMessage.substring(REPLAY_LINE.length())));
+                                }
+                                inbox.offer(incomingMessage);
                             }
-                        });
+                            schedulePump();
+                        }
+                    } catch (IOException e) {
+                        System.err.println("[WARNING] 서버 연결 오류: " + e.getMessage());
+                    }
+                    if (!closed) {
+                        reconnect();
                     }
-                } catch (IOException e) {
-                    e.printStackTrace();  // 예외 발생 시 스택 트레이스를 출력
                 }
             }).start();
         }
     }
 
-    // 서버로 메시지를 전송하는 메소드
-    public void sendMessage(String message) {
-        if (out != null) {
-            out.println(message);
+    // "<번호> <내용>" 의 번호 (해석할 수 없으면 0)
+    private static long chatId(String entry) {
+        int space = entry.indexOf(' ');
+        try {
+            return Long.parseLong(space < 0 ? entry : entry.substring(0, space));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // 이번 프레임의 반영 예약 (이미 예약되어 있으면 대기열에만 추가)
+    private void schedulePump() {
+        if (pumpScheduled.compareAndSet(false, true)) {
+            uiPump.start();
+        }
+    }
+
+    // 상태 줄 적용. 중간 버전이 빠졌으면 (송신 대기열 초과로 버려진 경우 등) 마지막 버전 이후를 다시 요청
+    private void applyState(String line) {
+        try {
+            ClimateView.Result result = climate.apply(line);
+            long now = System.currentTimeMillis();
+            if (result == ClimateView.Result.APPLIED) {
+                resyncRequestedAt = 0;
+            } else if (result == ClimateView.Result.GAP && now - resyncRequestedAt > RESYNC_INTERVAL_MILLIS) {
+                resyncRequestedAt = now;  // 응답이 오기 전의 빈 버전에는 다시 요청하지 않음
+                sendMessage("상태 요청: " + climate.version());
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("[WARNING] 잘못된 상태 메시지: " + line);
         }
     }
 
-    // 소켓을 반환하는 메소드
-    public Socket getSocket() {
-        return socket;
+    // 끊긴 연결을 다시 맺을 때까지 재시도 (노드 이동 안내를 받았으면 안내 없이 바로 접속)
+    // 구역을 다시 나누는 동안 두 노드가 서로를 안내하면 좌석이 오가므로, 안내가 이어지면 간격을 늘려 가며 기다림
+    private void reconnect() {
+        boolean moving = redirected;
+        redirected = false;
+        resetHistory();
+        if (!moving) {
+            inbox.offer("[알림] 서버와 연결이 끊겼습니다. 다시 연결하는 중...");
+            schedulePump();
+        }
+        while (!closed) {
+            try {
+                if (!moving) {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } else if (redirects > 1) {
+                    Thread.sleep(Math.min(RECONNECT_DELAY_MILLIS, REDIRECT_BACKOFF_MILLIS << Math.min(redirects - 2, 8)));
+                }
+                connect();
+                if (!moving) {
+                    inbox.offer("[알림] 서버에 다시 연결되었습니다.");
+                    schedulePump();
+                }
+                return;
+            } catch (IOException e) {
+                moving = false;  // 안내받은 노드도 멈춤: 평소처럼 간격을 두고 다음 후보로
+                useServer(serverIndex + 1);  // 서버가 아직 준비되지 않았거나 멈춤: 다음 간격에 다음 후보로 재시도
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // 끊긴 연결로 보낸 과거 기록 요청에는 응답이 오지 않으므로, 그 연결에서 받은 줄을 먼저 화면에 반영한 뒤
+    // 받다 만 기록을 버리고 채팅창의 요청 상태를 되돌림 (새 연결에서 읽기 전에 EDT에서 마침)
+    private void resetHistory() {
+        try {
+            SwingUtilities.invokeAndWait(() -> {
+                drainInbox();
+                pendingHistory = new ArrayList<>();
+                pendingHistoryIds = new ArrayList<>();
+                if (chatPanel != null) {
+                    chatPanel.resetHistoryPaging();
+                }
+            });
+        } catch (InvocationTargetException e) {
+            System.err.println("[WARNING] 채팅 기록 상태 초기화 실패: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 대기열에 쌓인 메시지를 한 번에 화면에 반영 (EDT)
+    private void drainInbox() {
+        pumpScheduled.set(false);  // 비우는 도중 도착한 메시지는 다음 프레임에 반영
+
+        List<String> chatLines = new ArrayList<>();
+        List<Long> chatIds = new ArrayList<>();  // 줄마다 채팅 번호 (0: 번호 없는 줄), 화면은 이 번호로 중복을 거름
+        String message;
+        while ((message = inbox.poll()) != null) {
+            // 과거 채팅 기록 응답은 끝 표시가 올 때까지 모았다가 채팅창 맨 위에 추가
+            if (message.startsWith(HISTORY_LINE)) {
+                String entry = message.substring(HISTORY_LINE.length());
+                pendingHistoryIds.add(chatId(entry));
+                pendingHistory.add(entry.substring(entry.indexOf(' ') + 1));  // 번호는 따로 보관
+                continue;
+            } else if (message.startsWith(HISTORY_END)) {
+                if (chatPanel != null) {
+                    chatPanel.prependHistory(pendingHistory, pendingHistoryIds, Long.parseLong(message.substring(HISTORY_END.length()).trim()));
+                }
+                pendingHistory = new ArrayList<>();
+                pendingHistoryIds = new ArrayList<>();
+                continue;
+            }
+            // 실시간 채팅과 접속 직후 다시 받은 채팅은 번호를 떼어 따로 보관
+            String entry = message.startsWith(CHAT_LINE) ? message.substring(CHAT_LINE.length())
+                    : message.startsWith(REPLAY_LINE) ? message.substring(REPLAY_LINE.length()) : null;
+            if (entry != null) {
+                chatIds.add(chatId(entry));
+                chatLines.add(entry.substring(entry.indexOf(' ') + 1));
+            } else {
+                chatIds.add(0L);
+                chatLines.add(message);
+            }
+        }
+
+        // 채팅 메시지는 모델 변경 한 번으로 추가
+        showChat(chatLines, chatIds);
+
+        // 온도, 모드, 바람 세기는 이번 프레임의 최신 상태만 반영
+        ClimateView latest = climate.copyIfChanged();
+        if (latest != null && acControlPanel != null) {
+            if (latest.getTemperature() >= 0) {
+                acControlPanel.updateCurrentTemperature(latest.getTemperature());  // 에어컨 온도 업데이트
+            }
+            if (!Double.isNaN(latest.getAir())) {
+                acControlPanel.updateAirTemperature(latest.getAir());  // 실제 공기 온도 업데이트
+            }
+            if (latest.getMode() != null) {
+                acControlPanel.updateMode(latest.getMode());  // 에어컨 모드 업데이트
+            }
+            if (latest.getWind() >= 0) {
+                acControlPanel.updateWindSpeed(latest.getWind());  // 바람 세기 업데이트
+            }
+        }
+    }
+
+    // 모아 둔 줄을 채팅창과 관리자 로그에 추가
+    private void showChat(List<String> lines, List<Long> ids) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        if (chatPanel != null) {
+            chatPanel.appendMessages(lines, ids);
+        }
+        if (messageDisplayArea != null) {
+            messageDisplayArea.append(String.join("\n", lines) + "\n");  // 관리자 로그 화면
+            messageDisplayArea.setCaretPosition(messageDisplayArea.getDocument().getLength());
+        }
+    }
+
+    // 서버로 메시지를 전송하는 메소드
+    public void sendMessage(String message) {
+        PrintWriter writer = out;
+        if (writer != null) {
+            writer.println(message);
+        }
     }
 
     // 소켓을 닫는 메소드
     public void close() throws IOException {
+        closed = true;
         if (socket != null) {
             socket.close();
+            uiPump.stop();
             isReceiverThreadRunning = false;
         }
     }
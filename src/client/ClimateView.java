@@ -0,0 +1,122 @@
+package client;
+
+// 서버가 보내는 구역 상태("[상태] <버전> key=value ...", "[상태 변경] <버전> key=value")를 버전 순서대로 적용한 결과
+// 수신 스레드가 적용하고 화면 갱신(EDT)은 프레임마다 copy()로 최신 값만 읽어 감
+public class ClimateView {
+    static final String SNAPSHOT = "[상태] ";
+    static final String DELTA = "[상태 변경] ";
+
+    // 적용 결과
+    enum Result {
+        APPLIED, // 반영됨
+        STALE,   // 이미 본 버전 (무시)
+        GAP      // 중간 버전이 빠짐 (다시 받아야 함)
+    }
+
+    private long version = 0;    // 마지막으로 적용한 버전 (0: 아직 받지 않음)
+    private String season;
+    private String choice;
+    private String mode;
+    private int temperature = -1; // -1: 아직 모름
+    private int wind = -1;
+    private double air = Double.NaN; // 실제 공기 온도 (NaN: 서버가 보내지 않음)
+    private boolean changed = false; // 마지막 copy() 이후 바뀌었는지
+
+    static boolean isStateLine(String line) {
+        return line.startsWith(SNAPSHOT) || line.startsWith(DELTA);
+    }
+
+    // 상태 줄 하나 적용
+    synchronized Result apply(String line) {
+        boolean snapshot = line.startsWith(SNAPSHOT);
+        String[] tokens = line.substring(snapshot ? SNAPSHOT.length() : DELTA.length()).trim().split("\\s+");
+        long lineVersion = Long.parseLong(tokens[0]);
+        if (!snapshot) {
+            if (lineVersion <= version) {
+                return Result.STALE;
+            }
+            if (version == 0 || lineVersion != version + 1) {
+                return Result.GAP;
+            }
+        }
+        for (int i = 1; i < tokens.length; i++) {
+            int eq = tokens[i].indexOf('=');
+            if (eq > 0) {
+                set(tokens[i].substring(0, eq), tokens[i].substring(eq + 1));
+            }
+        }
+        version = lineVersion;
+        changed = true;
+        return Result.APPLIED;
+    }
+
+    private void set(String key, String value) {
+        switch (key) {
+            case "season":
+                season = value;
+                break;
+            case "choice":
+                choice = value;
+                break;
+            case "mode":
+                mode = value;
+                break;
+            case "temperature":
+                temperature = Integer.parseInt(value);
+                break;
+            case "wind":
+                wind = Integer.parseInt(value);
+                break;
+            case "air":
+                air = Double.parseDouble(value);
+                break;
+            default:
+                // 모르는 항목은 무시 (서버가 먼저 항목을 늘려도 동작)
+        }
+    }
+
+    synchronized long version() {
+        return version;
+    }
+
+    // 바뀐 것이 있으면 현재 값을 복사해 반환 (없으면 null)
+    synchronized ClimateView copyIfChanged() {
+        if (!changed) {
+            return null;
+        }
+        changed = false;
+        ClimateView copy = new ClimateView();
+        copy.version = version;
+        copy.season = season;
+        copy.choice = choice;
+        copy.mode = mode;
+        copy.temperature = temperature;
+        copy.wind = wind;
+        copy.air = air;
+        return copy;
+    }
+
+    public String getSeason() {
+        return season;
+    }
+
+    public String getChoice() {
+        return choice;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public int getTemperature() {
+        return temperature;
+    }
+
+    public int getWind() {
+        return wind;
+    }
+
+    public double getAir() {
+        return air;
+    }
+}
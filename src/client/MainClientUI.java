@@ -27,7 +27,7 @@ public class MainClientUI {
         // 클라이언트 소켓 관리
         try {
             // ClientManager 객체 생성, 채팅과 에어컨 컨트롤 패널을 전달하여 클라이언트 기능 초기화
-            ClientManager clientManager = new ClientManager("localhost", 12345, chatPanel.getChatArea(), seatNumber, chatPanel, acControlPanel);
+            ClientManager clientManager = new ClientManager("localhost", 12345, null, seatNumber, chatPanel, acControlPanel);
             chatPanel.setClientManager(clientManager);  // ChatPanel에 ClientManager 설정
             acControlPanel.setClientManager(clientManager);  // ACControlPanel에 ClientManager 설정
         } catch (Exception e) {
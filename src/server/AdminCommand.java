@@ -0,0 +1,201 @@
+package server;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+// 관리자 제어 명령: "관리자 제어: <대상 구역> <항목=값>..." 한 줄로 여러 구역의 설정을 한 번에 바꿈
+//   대상 구역: "전체"(또는 all) / 쉼표로 구분한 구역 이름 ("A열람실,B열람실", 이름에 공백은 쓸 수 없음)
+//   항목: season=summer|winter (여름/겨울), choice=다수결|평균|중앙값|절사평균|쾌적 (majority/average/...),
+//         mode=냉방|난방, wind=1~3, temperature=18~26
+//   예) "관리자 제어: 전체 season=summer mode=냉방 temperature=24"
+//   운전 모드는 대상 구역마다 이 명령으로 바뀔 계절(없으면 현재 계절)에 맞아야 함
+// 모든 값을 먼저 검사해 하나라도 틀리면 어느 구역도 바꾸지 않고, 통과하면 구역마다 자기 샤드에서 모든 항목을 한꺼번에 적용
+// (구역 안에서 중간 상태가 보이지 않고, 변경분도 구역당 한 줄). 모든 구역이 끝나면 요청한 관리자에게 한 줄로 응답
+// 클러스터에서 다른 노드가 맡은 구역은 그 노드로 전달해 거기서 적용하며, 응답에는 전달한 구역 수만 덧붙임
+// 관리자 연결은 핸드셰이크에 "AUTH=<토큰>" 을 붙여야 등록되며, 토큰은 -Daircon.admin.token (비어 있으면 자리 번호 admin만 확인)
+final class AdminCommand {
+    static final String DONE = "[관리자 제어 완료]";
+    static final String FAILED = "[관리자 제어 실패]";
+    private static final byte[] TOKEN = System.getProperty("aircon.admin.token", "").getBytes(StandardCharsets.UTF_8);
+
+    final List<Zone> zones;
+    final String season;       // null: 바꾸지 않음
+    final String choice;
+    final String mode;
+    final int wind;            // 0: 바꾸지 않음
+    final int temperature;     // 0: 바꾸지 않음
+    final String changes;      // 변경분 한 줄에 들어갈 "season=summer temperature=24" (모든 구역 공통)
+    private int forwarded;     // 다른 노드로 전달한 구역 수 (apply 이후)
+
+    private AdminCommand(List<Zone> zones, String season, String choice, String mode, int wind, int temperature) {
+        this.zones = zones;
+        this.season = season;
+        this.choice = choice;
+        this.mode = mode;
+        this.wind = wind;
+        this.temperature = temperature;
+        StringBuilder line = new StringBuilder();
+        append(line, "season", season);
+        append(line, "choice", choice);
+        append(line, "mode", mode);
+        append(line, "wind", wind > 0 ? wind : null);
+        append(line, "temperature", temperature > 0 ? temperature : null);
+        this.changes = line.toString();
+    }
+
+    private static void append(StringBuilder line, String key, Object value) {
+        if (value != null) {
+            line.append(line.length() > 0 ? " " : "").append(key).append('=').append(value);
+        }
+    }
+
+    // 핸드셰이크의 토큰 확인 (설정된 토큰이 없으면 항상 통과)
+    static boolean authorized(String token) {
+        if (TOKEN.length == 0) {
+            return true;
+        }
+        return token != null && MessageDigest.isEqual(TOKEN, token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static boolean tokenConfigured() {
+        return TOKEN.length > 0;
+    }
+
+    // 명령 본문 해석과 값 검사 (틀린 값이 있으면 요청자에게 보낼 안내를 담은 IllegalArgumentException)
+    static AdminCommand parse(String body) {
+        String[] tokens = body.trim().split("\\s+", 2);
+        if (tokens[0].isEmpty()) {
+            throw new IllegalArgumentException("대상 구역이 없습니다.");
+        }
+        return parse(targets(tokens[0]), tokens.length > 1 ? tokens[1] : "");
+    }
+
+    // 대상 구역이 정해진 "<항목=값>..." 해석 (다른 노드에서 전달받은 관리자 제어)
+    static AdminCommand parse(List<Zone> zones, String items) {
+        String[] tokens = items.trim().split("\\s+");
+        String season = null;
+        String choice = null;
+        String mode = null;
+        int wind = 0;
+        int temperature = 0;
+        for (String token : tokens) {
+            if (token.isEmpty()) {
+                continue;  // 항목 없음 (아래에서 안내)
+            }
+            int eq = token.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("잘못된 항목입니다: " + token);
+            }
+            String key = token.substring(0, eq);
+            String value = token.substring(eq + 1);
+            switch (key) {
+                case "season":
+                    season = season(value);
+                    break;
+                case "choice":
+                    choice = AirConditionerManager.normalizeModeChoice(value);
+                    if (!choice.equals("majority") && PreferenceHistogram.Policy.of(choice) == null) {
+                        throw new IllegalArgumentException("알 수 없는 온도 결정 방식입니다: " + value);
+                    }
+                    break;
+                case "mode":
+                    if (!value.equals("냉방") && !value.equals("난방")) {
+                        throw new IllegalArgumentException("운전 모드는 냉방 또는 난방입니다: " + value);
+                    }
+                    mode = value;
+                    break;
+                case "wind":
+                    wind = number(value, 1, 3, "바람 세기는 1단에서 3단 사이로 설정 가능합니다: ");
+                    break;
+                case "temperature":
+                    temperature = number(value, PreferenceHistogram.MIN, PreferenceHistogram.MAX, "온도는 18~26°C 사이여야 합니다: ");
+                    break;
+                default:
+                    throw new IllegalArgumentException("알 수 없는 항목입니다: " + key);
+            }
+        }
+        if (season == null && choice == null && mode == null && wind == 0 && temperature == 0) {
+            throw new IllegalArgumentException("바꿀 항목이 없습니다.");
+        }
+        if (mode != null) {
+            for (Zone zone : zones) {
+                String effective = season != null ? season : zone.season;  // 이 명령으로 바뀔 계절, 없으면 구역의 현재 계절
+                if (!modeAllowed(effective, mode)) {
+                    throw new IllegalArgumentException((season != null ? "" : zone.getName() + ": ")
+                            + (effective.equals("summer") ? "여름" : "겨울") + "에는 " + mode + " 모드를 쓸 수 없습니다.");
+                }
+            }
+        }
+        return new AdminCommand(zones, season, choice, mode, wind, temperature);
+    }
+
+    private static List<Zone> targets(String target) {
+        if (target.equals("전체") || target.equalsIgnoreCase("all")) {
+            return ZoneManager.all();
+        }
+        Set<Zone> zones = new LinkedHashSet<>();
+        for (String name : target.split(",")) {
+            Zone zone = ZoneManager.byName(name);
+            if (zone == null) {
+                throw new IllegalArgumentException("알 수 없는 구역입니다: " + name);
+            }
+            zones.add(zone);
+        }
+        return new ArrayList<>(zones);
+    }
+
+    private static String season(String value) {
+        switch (value) {
+            case "summer":
+            case "여름":
+                return "summer";
+            case "winter":
+            case "겨울":
+                return "winter";
+            default:
+                throw new IllegalArgumentException("계절은 summer(여름) 또는 winter(겨울)입니다: " + value);
+        }
+    }
+
+    private static int number(String value, int min, int max, String error) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number >= min && number <= max) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // 아래에서 같은 안내로 처리
+        }
+        throw new IllegalArgumentException(error + value);
+    }
+
+    // 계절에 맞는 모드인지 (AirConditionerManager.isModeChangeAllowed와 같은 규칙)
+    private static boolean modeAllowed(String season, String mode) {
+        return !(season.equals("summer") && mode.equals("난방")) && !(season.equals("winter") && mode.equals("냉방"));
+    }
+
+    // 대상 구역마다 샤드에서 적용 (다른 노드가 맡은 구역은 전달만). 이 노드의 구역이 모두 끝나면 완료되는 future
+    CompletableFuture<Void> apply() {
+        List<CompletableFuture<?>> applied = new ArrayList<>(zones.size());
+        for (Zone zone : zones) {
+            if (!Cluster.owns(zone)) {
+                Cluster.replicateControl(zone, changes);
+                forwarded++;
+                continue;
+            }
+            applied.add(CompletableFuture.runAsync(() -> AirConditionerManager.applyAdminCommand(zone, this), zone.shard()));
+        }
+        return CompletableFuture.allOf(applied.toArray(new CompletableFuture<?>[0]));
+    }
+
+    // 요청자에게 보낼 완료 안내: "[관리자 제어 완료] 구역 3개: season=summer temperature=24"
+    String summary() {
+        return DONE + " 구역 " + zones.size() + "개: " + changes
+                + (forwarded > 0 ? " (다른 노드가 맡은 " + forwarded + "개는 전달)" : "");
+    }
+}
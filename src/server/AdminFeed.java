@@ -0,0 +1,119 @@
+package server;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// 관리자 요약 피드: 관리자에게 구역 브로드캐스트를 그대로 복사해 보내지 않고, 일정 간격마다 한 번
+//   "[관리자 요약] 최근 2초: 채팅 120건, 입장 30명, ... / 진행 중인 투표 3개" 한 줄과
+//   그 사이 채팅 중 무작위로 고른 몇 줄("[채팅 샘플] <구역> | <내용>")만 보냄
+// 관리자 호출은 요약하지 않고 바로 한 건씩 전달 (ClientHandler.onAdminCall)
+// 좌석이 몇 명이든 관리자 한 명이 받는 양은 간격당 (1 + chatSamples)줄로 고정, 채팅 전문은 "채팅 기록 요청: 0 <구역>"으로 직접 조회
+//   -Daircon.adminFeed.intervalMillis (기본 2000), -Daircon.adminFeed.chatSamples (간격당 채팅 샘플 수, 기본 3)
+final class AdminFeed {
+    static final long INTERVAL_MILLIS = Long.getLong("aircon.adminFeed.intervalMillis", 2000);
+    static final int CHAT_SAMPLES = Integer.getInteger("aircon.adminFeed.chatSamples", 3);
+    static final String SUMMARY = "[관리자 요약]";
+    static final String CHAT_SAMPLE = "[채팅 샘플]";
+    private static final String WINDOW = INTERVAL_MILLIS % 1000 == 0 ? INTERVAL_MILLIS / 1000 + "초" : INTERVAL_MILLIS + "ms";
+
+    // 요약에 세는 종류 (표시 순서)
+    enum Kind {
+        CHAT("채팅", "건"),
+        JOIN("입장", "명"),
+        LEAVE("퇴장", "명"),
+        TEMPERATURE("온도 요청", "건"),
+        VOTE_OPENED("투표 시작", "건"),
+        BALLOT("투표", "표"),
+        ADMIN_CALL("관리자 호출", "건");
+
+        final String label;
+        final String unit;
+        final LongAdder count = new LongAdder();
+
+        Kind(String label, String unit) {
+            this.label = label;
+            this.unit = unit;
+        }
+    }
+
+    // 이번 간격의 채팅 샘플 (저수지 표본: 채팅이 몇 건이든 고르게 CHAT_SAMPLES개)
+    private static final AtomicReferenceArray<String> samples = new AtomicReferenceArray<>(Math.max(1, CHAT_SAMPLES));
+    private static final AtomicLong chatsSeen = new AtomicLong();
+
+    private AdminFeed() {
+    }
+
+    static void record(Kind kind) {
+        kind.count.increment();
+    }
+
+    // 구역 채팅 한 건 (세고, 표본에 들 수 있음)
+    static void recordChat(Zone zone, String message) {
+        Kind.CHAT.count.increment();
+        if (CHAT_SAMPLES <= 0) {
+            return;
+        }
+        long seen = chatsSeen.getAndIncrement();
+        long slot = seen < CHAT_SAMPLES ? seen : ThreadLocalRandom.current().nextLong(seen + 1);
+        if (slot < CHAT_SAMPLES) {
+            samples.set((int) slot, zone.getName() + " | " + message);  // 문자열 조립은 표본에 든 경우만
+        }
+    }
+
+    // 서버 시작 시 한 번 호출
+    static void start(ClientRegistry clients) {
+        if (INTERVAL_MILLIS <= 0) {
+            return;
+        }
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("admin-feed").factory());
+        ticker.scheduleAtFixedRate(() -> flush(clients), INTERVAL_MILLIS, INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // 이번 간격을 마감하고 관리자에게 전송 (관리자가 없거나 아무 일도 없었으면 세기만 비움)
+    private static void flush(ClientRegistry clients) {
+        StringBuilder summary = new StringBuilder(SUMMARY).append(" 최근 ").append(WINDOW).append(':');
+        boolean active = false;
+        for (Kind kind : Kind.values()) {
+            long count = kind.count.sumThenReset();
+            if (count > 0) {
+                summary.append(active ? ", " : " ").append(kind.label).append(' ').append(count).append(kind.unit);
+                active = true;
+            }
+        }
+        long chats = Math.min(chatsSeen.getAndSet(0), CHAT_SAMPLES);
+        String[] picked = new String[(int) Math.max(0, chats)];
+        for (int i = 0; i < picked.length; i++) {
+            picked[i] = samples.getAndSet(i, null);
+        }
+
+        ClientHandler[] admins = clients.admins();
+        int votes = VoteManager.openSessions();
+        if (admins.length == 0 || (!active && votes == 0)) {
+            return;
+        }
+        if (!active) {
+            summary.append(" 활동 없음");
+        }
+        summary.append(" / 진행 중인 투표 ").append(votes).append("개");
+
+        OutboundMessage encoded = new OutboundMessage(summary.toString());
+        for (ClientHandler admin : admins) {
+            admin.sendMessage(encoded);
+        }
+        for (String sample : picked) {
+            if (sample == null) {
+                continue;  // 표본 자리를 잡았지만 아직 쓰지 않은 채팅 (다음 간격에는 세지 않음)
+            }
+            OutboundMessage line = new OutboundMessage(CHAT_SAMPLE + " " + sample);
+            for (ClientHandler admin : admins) {
+                admin.sendMessage(line);
+            }
+        }
+    }
+}
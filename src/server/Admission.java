@@ -0,0 +1,52 @@
+package server;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 접속 수락 단계: 서버 재시작 직후처럼 모든 좌석이 한꺼번에 다시 접속해도 버티도록
+//   - 핸드셰이크(자리 번호)를 기다리는 연결 수 제한: 가득 차면 accept를 멈춰 나머지는 커널 backlog에서 대기
+//   - 초당 accept 수 제한 (토큰 버킷)
+//   - 정해진 시간 안에 자리 번호를 보내지 않는 연결은 종료
+//   -Daircon.admission.maxPending (기본 256), -Daircon.admission.acceptsPerSecond (기본 200, 0이면 제한 없음),
+//   -Daircon.admission.handshakeMillis (기본 5000), -Daircon.admission.backlog (커널 접속 대기열, 기본 1024)
+final class Admission {
+    static final int BACKLOG = Integer.getInteger("aircon.admission.backlog", 1024);
+    static final int MAX_PENDING = Integer.getInteger("aircon.admission.maxPending", 256);
+    static final int ACCEPTS_PER_SECOND = Integer.getInteger("aircon.admission.acceptsPerSecond", 200);
+    static final long HANDSHAKE_MILLIS = Long.getLong("aircon.admission.handshakeMillis", 5000);
+
+    private final Semaphore pending = new Semaphore(MAX_PENDING);
+    private final long intervalNanos = ACCEPTS_PER_SECOND > 0 ? TimeUnit.SECONDS.toNanos(1) / ACCEPTS_PER_SECOND : 0;
+    private long nextAcceptNanos = System.nanoTime(); // accept 스레드 전용
+    private final long burstNanos = TimeUnit.MILLISECONDS.toNanos(100); // 쉬었다가 몰려올 때 허용하는 여유분
+
+    Admission() {
+        Metrics.gauge("aircon_pending_handshakes", "", "자리 번호를 기다리는 연결 수", () -> MAX_PENDING - pending.availablePermits());
+    }
+
+    // accept 직전에 호출 (accept 스레드). 대기 자리와 속도 한도가 허락할 때까지 기다림
+    Ticket awaitSlot() throws InterruptedException {
+        pending.acquire();
+        if (intervalNanos > 0) {
+            long now = System.nanoTime();
+            nextAcceptNanos = Math.max(nextAcceptNanos, now - burstNanos) + intervalNanos;
+            long wait = nextAcceptNanos - now;
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+        }
+        return new Ticket();
+    }
+
+    // 연결 하나의 대기 자리. 핸드셰이크가 끝나거나 연결이 닫히면 반납 (여러 번 호출해도 한 번만)
+    final class Ticket {
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                pending.release();
+            }
+        }
+    }
+}
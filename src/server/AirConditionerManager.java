@@ -1,139 +1,177 @@
 package server;
 
-import java.util.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-
+// 구역별 에어컨 상태 변경 로직. 상태 자체는 Zone에 있고, 여기서는 규칙 검사와 알림을 담당
+// 값이 바뀔 때마다 구역 상태 버전을 올려 구독 중인 클라이언트에 변경분을 보냄 (ClimateState)
 public class AirConditionerManager {
-    private static String season = "summer"; // 현재 계절 (여름/겨울)
-    private static String modeChoice = "average"; // 에어컨 모드: "average" (평균 모드), "majority" (다수결 모드)
-    private static int currentTemperature = 24; // 현재 온도
-    private static final List<Integer> temperatures = new ArrayList<>(); // 사용자 요청 온도 저장 리스트
-    private static final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1); // 스케줄러: 평균 온도 계산을 위한 대기 시간 설정
-    private static Runnable notifyClientsCallback; // 클라이언트 UI 업데이트를 위한 콜백
-    private static int windSpeed = 1; // 바람 세기
-
-    // 모드 변경
-    public static void changeMode(String mode) {
-        modeChoice = mode; // 모드 변경
-        notifyClients("[알림] 모드가 변경되었습니다: " + mode); // 모드 변경 알림
+    // 운전 모드 변경 (냉방/난방)
+    public static void changeMode(Zone zone, String mode) {
+        zone.acMode = mode; // 모드 변경
+        StateJournal.recordAcMode(zone);
+        zone.state.publish("mode", mode);
+        notifyClients(zone, "[알림] 모드가 변경되었습니다: " + mode); // 모드 변경 알림
     }
 
-    // **현재 모드 반환 (추가된 메서드)**
-    public static String getModeChoice() {
-        return modeChoice; // 현재 모드 반환
+    // 현재 운전 모드 반환 (냉방/난방)
+    public static String getMode(Zone zone) {
+        return zone.acMode;
     }
 
-    // 계절 변경
-    public static void changeSeason(String newSeason) {
-        season = newSeason; // 계절 변경
-        notifyClients("[알림] 계절이 변경되었습니다: " + (newSeason.equals("summer") ? "여름" : "겨울")); // 계절 변경 알림
+    // **현재 온도 결정 방식 반환 (추가된 메서드)**
+    public static String getModeChoice(Zone zone) {
+        return zone.modeChoice; // 현재 모드 반환
     }
 
     // 모드 변경 허용 여부 확인
-    public static boolean isModeChangeAllowed(String requestedMode) {
-        if ((season.equals("summer") && requestedMode.equals("난방")) ||
-                (season.equals("winter") && requestedMode.equals("냉방"))) {
+    public static boolean isModeChangeAllowed(Zone zone, String requestedMode) {
+        if ((zone.season.equals("summer") && requestedMode.equals("난방")) ||
+                (zone.season.equals("winter") && requestedMode.equals("냉방"))) {
             return false; // 계절에 따라 변경 불가능한 모드가 있음
         }
         return true;
     }
 
     // 계절 반환
-    public static String getSeason() {
-        return season; // 현재 계절 반환
+    public static String getSeason(Zone zone) {
+        return zone.season; // 현재 계절 반환
     }
 
     // 온도 직접 설정
-    public static void setTemperature(int temperature) {
+    public static void setTemperature(Zone zone, int temperature) {
         if (temperature < 18 || temperature > 26) {
-            System.out.println("[오류] 설정 가능한 온도 범위는 18°C에서 26°C입니다."); // 온도 범위 초과 오류 처리
+            EventLog.record(EventLog.Type.TEMPERATURE_OUT_OF_RANGE, null, temperature); // 온도 범위 초과 오류 처리
         } else {
-            currentTemperature = temperature; // 온도 설정
-            notifyClients("[알림] 관리자가 온도를 " + temperature + "°C로 설정하였습니다."); // 설정된 온도 알림
+            zone.currentTemperature = temperature; // 온도 설정
+            StateJournal.recordTemperature(zone);
+            zone.state.publish("temperature", temperature);
+            notifyClients(zone, "[알림] 관리자가 온도를 " + temperature + "°C로 설정하였습니다."); // 설정된 온도 알림
         }
     }
 
-    // 사용자 요청 온도 추가
-    public static synchronized void addTemperatureRequest(int temperature) {
-        temperatures.add(temperature); // 사용자 요청 온도 리스트에 추가
-        System.out.println("[INFO] 사용자 요청 온도 추가: " + temperature + "°C");
-
-        // 5초 뒤 평균 온도 계산
-        scheduler.schedule(AirConditionerManager::calculateAverageTemperature, 5, TimeUnit.SECONDS);
+    // 관리자 제어 명령을 한 구역에 적용 (구역 샤드에서 호출). 바뀐 항목을 모두 기록한 뒤 변경분 한 줄로 보냄
+    static void applyAdminCommand(Zone zone, AdminCommand command) {
+        if (command.season != null) {
+            zone.season = command.season;
+            StateJournal.recordSeason(zone);
+        }
+        if (command.choice != null) {
+            zone.modeChoice = command.choice;
+            StateJournal.recordModeChoice(zone);
+        }
+        if (command.mode != null) {
+            zone.acMode = command.mode;
+            StateJournal.recordAcMode(zone);
+        }
+        if (command.wind > 0) {
+            zone.windSpeed = command.wind;
+            StateJournal.recordWindSpeed(zone);
+        }
+        if (command.temperature > 0) {
+            zone.currentTemperature = command.temperature;
+            StateJournal.recordTemperature(zone);
+        }
+        zone.state.publish(command.changes);
+        notifyClients(zone, "[알림] 관리자 제어: " + command.changes);
     }
 
-    // 평균 온도 계산
-    private static synchronized void calculateAverageTemperature() {
-        if (!temperatures.isEmpty()) {
-            int sum = temperatures.stream().mapToInt(Integer::intValue).sum(); // 온도 합산
-            int average = (int) Math.round((double) sum / temperatures.size()); // 평균 계산
-            currentTemperature = average; // 평균 온도 설정
-            temperatures.clear(); // 리스트 초기화
-
-            notifyClients("[알림] 평균 온도로 설정되었습니다: " + currentTemperature + "°C"); // 평균 온도 알림
-            updateClientsTemperatureUI(); // 클라이언트 UI 업데이트
+    // 다른 노드가 맡은 구역의 변경분 적용 (구역 샤드에서 호출). 이미 적용한 버전은 건너뜀 (전체 상태는 항상 덮어씀)
+    static void applyReplicated(Zone zone, long version, String changes, boolean snapshot) {
+        if (!snapshot && zone.state.isStale(version)) {
+            return;
         }
+        for (String change : changes.split(" ")) {
+            int eq = change.indexOf('=');
+            String value = change.substring(eq + 1);
+            switch (change.substring(0, eq)) {
+                case "season":
+                    zone.season = value;
+                    StateJournal.recordSeason(zone);
+                    break;
+                case "choice":
+                    zone.modeChoice = value;
+                    StateJournal.recordModeChoice(zone);
+                    break;
+                case "mode":
+                    zone.acMode = value;
+                    StateJournal.recordAcMode(zone);
+                    break;
+                case "temperature":
+                    zone.currentTemperature = Integer.parseInt(value);
+                    StateJournal.recordTemperature(zone);
+                    break;
+                case "wind":
+                    zone.windSpeed = Integer.parseInt(value);
+                    StateJournal.recordWindSpeed(zone);
+                    break;
+                case "air":
+                    zone.airTemperature = Double.parseDouble(value);
+                    break;
+                default:
+                    break;  // 이 노드가 모르는 항목은 변경분으로만 전달
+            }
+        }
+        zone.state.publishReplicated(version, changes);
     }
 
-    private static void updateClientsTemperatureUI() {
-        if (notifyClientsCallback != null) {
-            notifyClientsCallback.run(); // 클라이언트 UI를 업데이트하는 콜백 호출
-        }
+    // 사용자 요청 온도 추가 (같은 자리의 이전 요청은 대체, 평균은 집계 창이 닫힐 때 계산)
+    // 구역 샤드에서 처리하므로 요청한 스레드는 기다리지 않음
+    public static void addTemperatureRequest(Zone zone, String seatId, int temperature) {
+        zone.execute(() -> zone.window.add(seatId, temperature)); // 집계 창에 반영
+        Metrics.TEMPERATURE_REQUESTS.inc();
+        AdminFeed.record(AdminFeed.Kind.TEMPERATURE);
+        EventLog.record(EventLog.Type.TEMPERATURE_REQUEST, seatId, temperature);
     }
 
-    // 현재 온도 반환
-    public static int getCurrentTemperature() {
-        return currentTemperature; // 현재 온도 반환
+    // 집계 창이 계산한 설정 온도 적용 (구역 샤드에서 호출)
+    static void applyAverageTemperature(Zone zone, int average) {
+        zone.currentTemperature = average; // 평균 온도 설정
+        Metrics.AVERAGES_APPLIED.inc();
+        StateJournal.recordTemperature(zone);
+        zone.state.publish("temperature", average);
+        PreferenceHistogram.Policy policy = PreferenceHistogram.Policy.of(zone.modeChoice);
+        notifyClients(zone, "[알림] " + (policy != null ? policy.label : "평균") + " 온도로 설정되었습니다: " + average + "°C"); // 집계 온도 알림
     }
 
-    // 클라이언트 알림 콜백 설정
-    public static void setNotifyClientsCallback(Runnable callback) {
-        notifyClientsCallback = callback; // 클라이언트 UI 업데이트를 위한 콜백 설정
+    // 현재 온도 반환
+    public static int getCurrentTemperature(Zone zone) {
+        return zone.currentTemperature; // 현재 온도 반환
     }
 
-    // 클라이언트에 메시지 전송
-    private static void notifyClients(String message) {
-        if (notifyClientsCallback != null) {
-            notifyClientsCallback.run(); // 메시지를 클라이언트에게 전달하는 콜백 호출
-        }
+    // 상태 변경 기록 (화면 갱신은 위의 publish로 보낸 변경분이 담당)
+    private static void notifyClients(Zone zone, String message) {
+        EventLog.record(EventLog.Type.ZONE_CHANGED, null, zone + " " + message);
     }
 
     // 투표 결과 적용
-    public static void applyVoteResult(boolean isApproved) {
+    public static void applyVoteResult(Zone zone, boolean isApproved) {
         if (isApproved) {
-            notifyClients("[알림] 투표에 따라 온도가 " + currentTemperature + "°C로 설정되었습니다."); // 투표 승인 시 온도 설정
-            updateClientsTemperatureUI(); // UI 업데이트
+            notifyClients(zone, "[알림] 투표에 따라 온도가 " + zone.currentTemperature + "°C로 설정되었습니다."); // 투표 승인 시 온도 설정
         } else {
-            notifyClients("[알림] 투표 결과 온도 변경이 거부되었습니다."); // 투표 거부 시
+            notifyClients(zone, "[알림] 투표 결과 온도 변경이 거부되었습니다."); // 투표 거부 시
         }
     }
 
-    // 모드 설정
-    public static void setModeChoice(String newMode) {
-        modeChoice = newMode; // 모드 변경
-        notifyClients("[알림] 모드가 '" + newMode + "'로 변경되었습니다."); // 변경된 모드 알림
+    // 관리자 화면의 한글 이름도 받아들임: "평균" → "average", "다수결" → "majority", "중앙값" → "median", "절사평균" → "trimmed", "쾌적" → "comfort"
+    static String normalizeModeChoice(String mode) {
+        if (mode.equals("다수결")) {
+            return "majority";
+        }
+        String key = PreferenceHistogram.Policy.keyOfLabel(mode);
+        return key != null ? key : mode;
     }
 
     // ====== 바람 세기 관련 메서드 ======
-    public static void adjustWindSpeed(int delta) {
-        int newSpeed = windSpeed + delta; // 바람 세기 조정
+    public static void adjustWindSpeed(Zone zone, int delta) {
+        int newSpeed = zone.windSpeed + delta; // 바람 세기 조정
         if (newSpeed >= 1 && newSpeed <= 3) {
-            windSpeed = newSpeed; // 세기 설정
-            notifyClients("[알림] 바람 세기가 " + windSpeed + "단으로 변경되었습니다."); // 바람 세기 변경 알림
-            updateClientsWindSpeedUI(); // UI 업데이트
-        }
-    }
-
-    private static void updateClientsWindSpeedUI() {
-        if (notifyClientsCallback != null) {
-            notifyClientsCallback.run(); // 바람 세기 변경 시 UI 업데이트
+            zone.windSpeed = newSpeed; // 세기 설정
+            StateJournal.recordWindSpeed(zone);
+            zone.state.publish("wind", newSpeed);
+            notifyClients(zone, "[알림] 바람 세기가 " + newSpeed + "단으로 변경되었습니다."); // 바람 세기 변경 알림
         }
     }
 
     // 바람 세기 반환
-    public static int getWindSpeed() {
-        return windSpeed; // 바람 세기 반환
+    public static int getWindSpeed(Zone zone) {
+        return zone.windSpeed; // 바람 세기 반환
     }
 }
@@ -0,0 +1,186 @@
+package server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// 길이 접두 바이너리 프레임: [본문 길이 u16][opcode u8][본문]
+// 숫자 명령(온도/투표/모드/바람)은 본문 1바이트이며 문자열을 만들지 않고 처리
+public final class BinaryProtocol {
+    public static final int VERSION = 1;        // 서버가 지원하는 최신 버전
+    public static final int HEADER_SIZE = 3;    // 길이 2바이트 + opcode 1바이트
+    public static final int MAX_PAYLOAD = 0xFFFF;
+
+    // opcode (클라이언트 → 서버)
+    public static final int OP_TEMPERATURE = 0x01; // i8 온도
+    public static final int OP_VOTE = 0x02;        // u8 1=찬성, 0=반대 [+ u32 투표 번호]
+    public static final int OP_MODE = 0x03;        // u8 0=냉방, 1=난방
+    public static final int OP_WIND = 0x04;        // i8 바람 세기 증감
+    public static final int OP_CHAT = 0x05;        // UTF-8 채팅
+    public static final int OP_NOTICE = 0x06;      // UTF-8 공지 본문 ("[공지]" 제외)
+    public static final int OP_ADMIN_CALL = 0x07;  // UTF-8 관리자 호출 내용
+    public static final int OP_METRICS = 0x08;     // 본문 없음, 지표 조회 (관리자 전용)
+    public static final int OP_CHAT_HISTORY = 0x09; // u32 이 번호보다 오래된 채팅 [+ UTF-8 구역 이름, 관리자 전용] (본문 없음: 가장 최근부터)
+    public static final int OP_STATE = 0x0A;       // u64 마지막으로 적용한 상태 버전 (본문 없음: 전체 상태)
+    public static final int OP_ADMIN_CONTROL = 0x0B; // UTF-8 관리자 제어 "<대상 구역> <항목=값>..."
+    // opcode (양방향) 기존 텍스트 한 줄을 그대로 담은 프레임. 서버 → 클라이언트 메시지는 모두 이 형식
+    public static final int OP_TEXT = 0x10;
+
+    static final String[] MODES = {"냉방", "난방"};
+
+    private BinaryProtocol() {
+    }
+
+    // ====== 인코딩 ======
+    public static byte[] encode(int opcode, byte[] payload) {
+        if (payload.length > MAX_PAYLOAD) {
+            throw new IllegalArgumentException("프레임 본문이 너무 깁니다: " + payload.length);
+        }
+        byte[] frame = new byte[HEADER_SIZE + payload.length];
+        frame[0] = (byte) (payload.length >>> 8);
+        frame[1] = (byte) payload.length;
+        frame[2] = (byte) opcode;
+        System.arraycopy(payload, 0, frame, HEADER_SIZE, payload.length);
+        return frame;
+    }
+
+    public static byte[] encode(int opcode, int value) {
+        return encode(opcode, new byte[]{(byte) value});
+    }
+
+    public static byte[] encodeText(int opcode, String text) {
+        return encode(opcode, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ====== 디스패치 ======
+    // 완성된 프레임 하나를 해석해 handler 호출 (payload는 재사용 버퍼이므로 보관 금지)
+    public static void dispatch(int opcode, byte[] payload, int length, CommandHandler handler) {
+        switch (opcode) {
+            case OP_TEMPERATURE:
+                if (length == 1) {
+                    handler.onTemperature(payload[0]);
+                } else {
+                    handler.onMalformed("[오류] 잘못된 온도 값입니다.");
+                }
+                break;
+            case OP_VOTE:
+                if (length == 1) {
+                    handler.onVote(payload[0] == 1, 0);
+                } else if (length == 5) {
+                    handler.onVote(payload[0] == 1, readInt(payload, 1));
+                } else {
+                    handler.onMalformed("[오류] 잘못된 투표 값입니다.");
+                }
+                break;
+            case OP_MODE:
+                if (length == 1 && (payload[0] == 0 || payload[0] == 1)) {
+                    handler.onModeChange(MODES[payload[0]]);
+                } else {
+                    handler.onMalformed("[오류] 잘못된 모드 값입니다.");
+                }
+                break;
+            case OP_WIND:
+                if (length == 1) {
+                    handler.onWindSpeed(payload[0]);
+                } else {
+                    handler.onMalformed("[오류] 잘못된 바람 세기 값입니다.");
+                }
+                break;
+            case OP_CHAT:
+                handler.onChat(text(payload, length));
+                break;
+            case OP_NOTICE:
+                handler.onNotice(TextProtocol.NOTICE + " " + text(payload, length));
+                break;
+            case OP_ADMIN_CALL:
+                handler.onAdminCall(text(payload, length));
+                break;
+            case OP_METRICS:
+                handler.onMetricsRequest();
+                break;
+            case OP_CHAT_HISTORY:
+                if (length == 0) {
+                    handler.onChatHistory(0, null);
+                } else if (length >= 4) {
+                    handler.onChatHistory(readInt(payload, 0) & 0xFFFFFFFFL,
+                            length > 4 ? new String(payload, 4, length - 4, StandardCharsets.UTF_8) : null);
+                } else {
+                    handler.onMalformed("[오류] 잘못된 채팅 기록 번호입니다.");
+                }
+                break;
+            case OP_STATE:
+                if (length == 0) {
+                    handler.onStateRequest(0);
+                } else if (length == 8) {
+                    handler.onStateRequest(((long) readInt(payload, 0) << 32) | (readInt(payload, 4) & 0xFFFFFFFFL));
+                } else {
+                    handler.onMalformed("[오류] 잘못된 상태 버전입니다.");
+                }
+                break;
+            case OP_ADMIN_CONTROL:
+                handler.onAdminControl(text(payload, length));
+                break;
+            case OP_TEXT:
+                TextProtocol.dispatch(text(payload, length), handler);
+                break;
+            default:
+                handler.onMalformed("[오류] 알 수 없는 명령입니다: " + opcode);
+        }
+    }
+
+    private static int readInt(byte[] payload, int offset) {
+        return ((payload[offset] & 0xFF) << 24) | ((payload[offset + 1] & 0xFF) << 16)
+                | ((payload[offset + 2] & 0xFF) << 8) | (payload[offset + 3] & 0xFF);
+    }
+
+    private static String text(byte[] payload, int length) {
+        return new String(payload, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // 연결별 프레임 디코더. 헤더와 본문 버퍼를 재사용하므로 프레임마다 할당하지 않음
+    public static final class Decoder {
+        private final byte[] header = new byte[HEADER_SIZE];
+        private int headerRead = 0;
+        private byte[] payload = new byte[256]; // 긴 프레임이 오면 최대 64KB까지 증가
+        private int payloadLength = -1;        // -1: 헤더 대기 중
+        private int payloadRead = 0;
+
+        // buffer의 남은 바이트를 모두 소비하며 완성된 프레임마다 dispatch
+        public void decode(ByteBuffer buffer, CommandHandler handler) {
+            while (buffer.hasRemaining()) {
+                if (payloadLength < 0) {
+                    int n = Math.min(buffer.remaining(), HEADER_SIZE - headerRead);
+                    buffer.get(header, headerRead, n);
+                    headerRead += n;
+                    if (headerRead == HEADER_SIZE) {
+                        startPayload();
+                    }
+                }
+                if (payloadLength >= 0) {
+                    int n = Math.min(buffer.remaining(), payloadLength - payloadRead);
+                    buffer.get(payload, payloadRead, n);
+                    payloadRead += n;
+                }
+                if (payloadLength >= 0 && payloadRead == payloadLength) {
+                    completeFrame(handler);
+                }
+            }
+        }
+
+        private void startPayload() {
+            payloadLength = ((header[0] & 0xFF) << 8) | (header[1] & 0xFF);
+            payloadRead = 0;
+            if (payload.length < payloadLength) {
+                payload = Arrays.copyOf(payload, Math.max(payloadLength, payload.length * 2));
+            }
+        }
+
+        private void completeFrame(CommandHandler handler) {
+            int opcode = header[2] & 0xFF;
+            int length = payloadLength;
+            headerRead = 0;
+            payloadLength = -1;
+            dispatch(opcode, payload, length, handler);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// 구역별 최근 채팅 기록 (고정 크기 링 버퍼). 채팅마다 구역 안에서 증가하는 번호(1부터)가 붙음
+// 클라이언트는 화면에서 밀려난 과거 기록을 "채팅 기록 요청: <번호>" 로 필요할 때만 가져가고,
+// 새로 접속한 좌석에는 최근 채팅을 한 번에 다시 보내 줌 (재생)
+// 핸드셰이크에 "CHAT=" 을 붙인 연결은 실시간 채팅도 "[채팅] <번호> <내용>" 으로 받아 번호로 중복을 거르고 이어 받음
+// 기록하는 쪽끼리만 잠그고, 읽는 쪽(과거 기록/재생)은 잠금 없이 읽음: 입장이 몰려도 채팅 브로드캐스트는 기다리지 않음
+final class ChatLog {
+    // -Daircon.chat.historySize (구역당 보관하는 채팅 수), -Daircon.chat.pageSize (요청 한 번에 보내는 수),
+    // -Daircon.chat.replaySize (접속할 때 다시 보내는 최근 채팅 수, 0이면 재생하지 않음)
+    static final int DEFAULT_CAPACITY = Integer.getInteger("aircon.chat.historySize", 1000);
+    static final int PAGE_SIZE = Integer.getInteger("aircon.chat.pageSize", 50);
+    static final int REPLAY_SIZE = Integer.getInteger("aircon.chat.replaySize", 20);
+
+    private final AtomicReferenceArray<Entry> entries;
+    private volatile long newestId = 0; // 기록이 끝난 가장 최근 번호 (읽는 쪽은 이 번호까지만 봄)
+
+    ChatLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    ChatLog(int capacity) {
+        this.entries = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    // 채팅 추가 (가득 차면 가장 오래된 기록을 덮어씀)
+    synchronized Entry append(String message) {
+        long id = newestId + 1;
+        Entry entry = new Entry(id, message);
+        entries.set(slot(id), entry);
+        newestId = id;  // 칸을 채운 다음에 공개
+        return entry;
+    }
+
+    // beforeId보다 오래된 채팅을 최대 limit개, 오래된 것부터 (beforeId 0: 가장 최근부터)
+    List<Entry> page(long beforeId, int limit) {
+        long newest = newestId;
+        long end = beforeId <= 0 ? newest + 1 : Math.min(beforeId, newest + 1); // 이 번호 미만
+        return range(Math.max(oldestId(newest), end - limit), end);
+    }
+
+    // afterId 이후의 채팅을 최대 limit개, 오래된 것부터 (접속 직후 재생)
+    List<Entry> since(long afterId, int limit) {
+        long newest = newestId;
+        return range(Math.max(Math.max(oldestId(newest), afterId + 1), newest + 1 - limit), newest + 1);
+    }
+
+    private List<Entry> range(long start, long end) {
+        List<Entry> found = new ArrayList<>((int) Math.max(0, end - start));
+        for (long id = start; id < end; id++) {
+            Entry entry = entries.get(slot(id));
+            if (entry != null && entry.id == id) {  // 읽는 사이 새 채팅이 덮어쓴 칸은 건너뜀
+                found.add(entry);
+            }
+        }
+        return found;
+    }
+
+    // 다음 채팅에 붙을 번호 (이 번호보다 오래된 기록 = 전체)
+    long nextId() {
+        return newestId + 1;
+    }
+
+    // 아직 남아 있는 가장 오래된 번호
+    long oldestId() {
+        return oldestId(newestId);
+    }
+
+    private long oldestId(long newest) {
+        return Math.max(1, newest + 1 - entries.length());
+    }
+
+    private int slot(long id) {
+        return (int) (id % entries.length());
+    }
+
+    static final class Entry {
+        final long id;
+        final String message;
+        final OutboundMessage replay; // "[채팅 재생] <번호> <내용>" (처음 재생할 때 한 번 인코딩한 뒤 모든 재생이 공유)
+        final OutboundMessage live;   // "[채팅] <번호> <내용>" (번호를 받는 연결에 보내는 실시간 채팅)
+
+        Entry(long id, String message) {
+            this.id = id;
+            this.message = message;
+            this.replay = new OutboundMessage(TextProtocol.REPLAY_LINE + " " + id + " " + message);
+            this.live = new OutboundMessage(TextProtocol.CHAT_LINE + " " + id + " " + message);
+        }
+    }
+}
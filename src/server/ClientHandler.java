@@ -2,173 +2,656 @@ package server;
 
 import java.io.*;
 import java.net.*;
-import java.util.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
-public class ClientHandler implements Runnable {
-    private Socket clientSocket;  // 클라이언트 소켓
-    private BufferedReader in;    // 입력 스트림 (클라이언트에서 보내는 데이터 받기)
-    private PrintWriter out;     // 출력 스트림 (서버에서 클라이언트로 데이터 보내기)
+public class ClientHandler implements Runnable, CommandHandler {
+    private SocketChannel clientChannel;  // 클라이언트 채널 (블로킹 모드에서만 사용)
+    private InputStream in;       // 입력 스트림 (클라이언트에서 보내는 데이터 받기)
+    private final byte[] readBuffer = new byte[8 * 1024];  // 소켓 수신 버퍼 (텍스트/바이너리 공용)
+    private int readPos = 0;
+    private int readLimit = 0;
+    private byte[] lineBuffer = new byte[256];  // 텍스트 한 줄 조립용 재사용 버퍼
+    private final Connection connection;  // 출력 연결 (서버에서 클라이언트로 데이터 보내기)
     private String clientId;     // 클라이언트의 아이디 (자리 번호)
-    private List<ClientHandler> clients;  // 클라이언트 목록
+    private Zone zone;           // 자리가 속한 구역 (관리자는 첫 구역)
+    private ClientRegistry clients;  // 클라이언트 목록
+    private final AtomicBoolean disconnected = new AtomicBoolean(false);  // 연결 해제 처리 여부
+    private volatile boolean registered = false;  // 목록 등록 성공 여부 (중복 자리면 false)
+    private boolean binary = false;  // 바이너리 프레임 프로토콜 사용 여부 (핸드셰이크에서 결정)
+    private boolean chatIds = false; // 실시간 채팅을 번호와 함께 받는지 (핸드셰이크의 CHAT=, 등록 전에 정해짐)
+    private volatile boolean stateSubscriber = false;  // 구역 상태 변경분 수신 여부 (핸드셰이크의 STATE=)
+    private Admission.Ticket admission;  // 핸드셰이크 대기 자리 (블로킹 모드, 핸드셰이크가 끝나면 반납)
+    private final SeatRateLimiter limiter = new SeatRateLimiter();  // 명령 종류별 초당 한도 (읽는 스레드 전용)
 
-    public ClientHandler(Socket socket, List<ClientHandler> clients, String seatNumber) {
-        this.clientSocket = socket;  // 소켓 초기화
-        this.clients = clients;      // 클라이언트 리스트 초기화
-        this.clientId = seatNumber;  // 클라이언트 아이디(자리 번호) 설정
+    // 블로킹/가상 스레드 모드: 소켓 하나를 스레드 하나가 읽음. 자리 번호는 run()에서 수신
+    public ClientHandler(SocketChannel channel, ClientRegistry clients) {
+        this(channel, clients, null);
+    }
+
+    ClientHandler(SocketChannel channel, ClientRegistry clients, Admission.Ticket admission) {
+        this.clientChannel = channel;  // 채널 초기화
+        this.clients = clients;        // 클라이언트 리스트 초기화
+        this.admission = admission;
+        this.connection = new SocketConnection(channel);  // 등록 직후의 브로드캐스트도 받을 수 있도록 미리 출력 준비
+    }
+
+    // NIO 모드: 읽기는 이벤트 루프가 담당하고 핸드셰이크와 완성된 줄/프레임만 전달됨
+    ClientHandler(Connection connection, ClientRegistry clients) {
+        this.connection = connection;
+        this.clients = clients;
     }
 
     @Override
     public void run() {
         try {
-            in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));  // 입력 스트림 설정
-            out = new PrintWriter(clientSocket.getOutputStream(), true);  // 출력 스트림 설정
-
-            // 클라이언트 입장 메시지 처리
-            System.out.println("[INFO] 클라이언트 연결: " + clientId);
-            broadcastMessage(clientId + "번 고객님이 입장하셨습니다.");
-            sendToAdmin(clientId + "번 고객님이 입장하셨습니다."); // 관리자에게 입장 알림
-
-            String input;
-            while ((input = in.readLine()) != null) {  // 클라이언트로부터 메시지 수신
-                System.out.println("[INFO] 메시지 수신 (" + clientId + "): " + input);
-
-                // 메시지 타입에 따른 처리
-                if (input.startsWith("관리자 호출:")) {  // 관리자 호출 처리
-                    sendToAdmin(input);
-                } else if (input.startsWith("[공지]")) {
-                    broadcastMessage(input);  // 공지 처리
-                } else if (input.startsWith("온도 설정:")) {
-                    handleTemperatureRequest(input);  // 온도 설정 요청 처리
-                } else if (input.startsWith("투표:")) {
-                    handleVote(input);  // 투표 처리
-                } else if (input.startsWith("모드 변경:")) {
-                    handleModeChangeRequest(input);  // 모드 변경 요청 처리
-                } else if (input.startsWith("바람 세기:")) {
-                    handleWindSpeedRequest(input);  // 바람 세기 설정 요청 처리
-                } else {
-                    broadcastMessage(input);  // 일반 메시지 브로드캐스트
+            in = clientChannel.socket().getInputStream();  // 입력 스트림 설정 (쓰기는 writer가 채널에 직접)
+
+            // 클라이언트 자리 번호 수신 (accept 스레드가 아닌 핸들러 스레드에서, 정해진 시간까지만 대기)
+            String handshake;
+            try {
+                clientChannel.socket().setSoTimeout((int) Admission.HANDSHAKE_MILLIS);
+                handshake = readLine();
+                clientChannel.socket().setSoTimeout(0);
+            } catch (SocketTimeoutException e) {
+                EventLog.record(EventLog.Type.HANDSHAKE_TIMEOUT, null);
+                return;
+            }
+            boolean started = handshake != null && start(handshake);
+            releaseAdmission();
+            if (!started) {
+                return;  // 자리 번호 전에 연결이 끊겼거나 이미 사용 중인 자리
+            }
+
+            if (binary) {
+                // 핸드셰이크 줄 뒤에 이미 받아 둔 바이트부터 프레임으로 해석
+                BinaryProtocol.Decoder decoder = new BinaryProtocol.Decoder();
+                ByteBuffer view = ByteBuffer.wrap(readBuffer);
+                view.position(readPos).limit(readLimit);
+                do {
+                    decoder.decode(view, this);  // 클라이언트로부터 프레임 수신
+                    int n = in.read(readBuffer);
+                    if (n < 0) {
+                        break;
+                    }
+                    view.clear().limit(n);
+                } while (true);
+            } else {
+                String input;
+                while ((input = readLine()) != null) {  // 클라이언트로부터 메시지 수신
+                    handleMessage(input);
                 }
             }
         } catch (IOException e) {
             System.err.println("[오류] 클라이언트 통신 오류: " + clientId);  // 연결 오류 처리
         } finally {
+            releaseAdmission();
             disconnectClient();  // 연결 종료 후 클라이언트 처리
         }
     }
 
-    // 관리자 호출 메시지 처리
-    private void sendToAdmin(String message) {
-        String[] parts = message.split(":");  // 메시지를 ':'로 분리
+    private void releaseAdmission() {
+        if (admission != null) {
+            admission.release();
+            admission = null;
+        }
+    }
 
-        if (parts.length > 1) {
-            for (ClientHandler client : clients) {
-                if (client.getClientId().equalsIgnoreCase("admin")) {
-                    client.sendMessage("[관리자 호출 요청] " + parts[1].trim());  // 관리자에게 호출 메시지 전송
+    // UTF-8 한 줄 읽기 (핸드셰이크 뒤의 바이트가 readBuffer에 남아 바이너리 전환 시 그대로 이어서 사용됨)
+    private String readLine() throws IOException {
+        int length = 0;
+        while (true) {
+            if (readPos == readLimit) {
+                int n = in.read(readBuffer);
+                if (n < 0) {
+                    return length == 0 ? null : new String(lineBuffer, 0, length, StandardCharsets.UTF_8);
                 }
+                readPos = 0;
+                readLimit = n;
+            }
+            byte b = readBuffer[readPos++];
+            if (b == '\n') {
+                break;
             }
+            if (length == lineBuffer.length) {
+                lineBuffer = Arrays.copyOf(lineBuffer, length * 2);
+            }
+            lineBuffer[length++] = b;
+        }
+        if (length > 0 && lineBuffer[length - 1] == '\r') {
+            length--;
+        }
+        return new String(lineBuffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // 핸드셰이크 처리: 자리 번호 등록, 프로토콜 협상, 입장 알림. 연결을 계속 쓸 수 있으면 true
+    boolean start(String handshakeLine) {
+        Handshake handshake = Handshake.parse(handshakeLine);
+        clientId = handshake.seatNumber;
+        zone = ZoneManager.zoneOf(clientId);
+        EventLog.record(EventLog.Type.SEAT_RECEIVED, clientId, zone);
+        if (!ClientRegistry.isAdmin(clientId) && !Cluster.owns(zone)) {
+            Cluster.redirect(this, Cluster.ownerAddress(zone));  // 클러스터에서 다른 노드가 맡은 구역: 등록하지 않고 안내
+            return false;
+        }
+        // 프로토콜 전환은 등록 전에 끝냄: 등록되면 다른 스레드의 브로드캐스트가 대기열에 들어오므로,
+        // 응답과 전환 사이에 들어온 메시지가 텍스트로 인코딩되어 응답 뒤에 섞이지 않도록
+        int version = handshake.negotiatedBinaryVersion();
+        if (version > 0) {
+            sendMessage(Handshake.BINARY_TOKEN + version);  // 응답까지는 텍스트, 이후부터 프레임
+            connection.enableBinaryFrames();
+            binary = true;
+        }
+
+        if (ClientRegistry.isAdmin(clientId) && !AdminCommand.authorized(handshake.authToken)) {
+            // 토큰이 맞지 않는 관리자 자리는 등록하지 않음 (요청 한도 면제·지표·전체 채팅·요약 피드 모두 관리자 등록이 기준)
+            EventLog.record(EventLog.Type.ADMIN_REJECTED, clientId);
+            sendMessage("[알림] 관리자 인증 토큰이 맞지 않아 연결을 종료합니다.");
+            disconnectClient();
+            return false;
+        }
+        chatIds = handshake.lastChatId >= 0;
+        if (!register()) {
+            return false;
+        }
+
+        onConnect();
+        if (handshake.stateVersion >= 0) {
+            zone.state.subscribe(this, handshake.stateVersion);  // 마지막으로 본 버전 이후의 상태
+        }
+        replayChat(handshake.lastChatId);
+        return true;
+    }
+
+    // 접속 전에 오간 최근 채팅을 한 번에 전송 (등록 후에 읽으므로 그 사이 채팅이 빠지지 않음, 링은 잠그지 않음)
+    private void replayChat(long lastChatId) {
+        if (ChatLog.REPLAY_SIZE <= 0 && lastChatId <= 0) {
+            return;
+        }
+        List<ChatLog.Entry> entries = lastChatId > 0
+                ? zone.chatLog.since(lastChatId, Integer.MAX_VALUE)
+                : zone.chatLog.since(0, ChatLog.REPLAY_SIZE);
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<OutboundMessage> replay = new ArrayList<>(entries.size());
+        for (ChatLog.Entry entry : entries) {
+            replay.add(entry.replay);
+        }
+        if (!connection.sendAll(replay)) {
+            EventLog.record(EventLog.Type.OUTBOUND_OVERFLOW, clientId);
+            disconnectClient();
+        }
+        Metrics.CHAT_REPLAYS.inc();
+        Metrics.CHAT_REPLAYED.add(entries.size());
+    }
+
+    boolean isBinary() {
+        return binary;
+    }
+
+    boolean isStateSubscriber() {
+        return stateSubscriber;
+    }
+
+    void markStateSubscriber() {
+        stateSubscriber = true;
+    }
+
+    // 목록에 등록. 같은 자리 번호가 이미 접속 중이면 알리고 연결 종료
+    private boolean register() {
+        if (clients.register(this)) {
+            registered = true;
+            EventLog.record(EventLog.Type.CLIENT_REGISTERED, clientId);
+            return true;
+        }
+        EventLog.record(EventLog.Type.DUPLICATE_SEAT, clientId); // 중복된 클라이언트
+        sendMessage("[알림] " + clientId + "번 자리는 이미 사용 중입니다.");
+        disconnectClient();
+        return false;
+    }
+
+    // 클라이언트 입장 메시지 처리
+    private void onConnect() {
+        EventLog.record(EventLog.Type.CLIENT_CONNECTED, clientId);
+        if (ClientRegistry.isAdmin(clientId)) {
+            broadcastMessage(clientId + "번 " + Presence.JOINED);
         } else {
-            System.err.println("[ERROR] 잘못된 메시지 포맷: " + message);  // 잘못된 포맷 처리
+            zone.presence.joined(clientId, clients);  // 재접속이 몰리면 한 줄로 묶어서 알림
         }
     }
 
-    // 투표 메시지 처리
-    private void handleVote(String input) {
-        boolean agree = input.split(":")[1].trim().equalsIgnoreCase("yes");  // 동의 여부 확인
+    // 수신한 텍스트 한 줄 처리 (블로킹/NIO 모드 공통)
+    void handleMessage(String input) {
+        EventLog.record(EventLog.Type.MESSAGE_RECEIVED, clientId, input);
+        TextProtocol.dispatch(input, this);  // 메시지 타입에 따른 처리
+    }
+
+    // 관리자 호출 메시지 처리
+    @Override
+    public void onAdminCall(String message) {
+        Metrics.INBOUND_ADMIN_CALL.inc();
+        if (!allow(SeatRateLimiter.Kind.CONTROL)) {
+            return;
+        }
+        if (!message.isEmpty()) {
+            AdminFeed.record(AdminFeed.Kind.ADMIN_CALL);
+            notifyAdmins(clients, message);
+            Cluster.replicateAdminCall(message);  // 다른 노드에 접속한 관리자에게도 전달
+        } else {
+            System.err.println("[ERROR] 잘못된 메시지 포맷: " + TextProtocol.ADMIN_CALL);  // 잘못된 포맷 처리
+        }
+    }
 
-        String resultMessage = clientId + "가 " + (agree ? "찬성" : "반대") + "합니다.";  // 투표 결과 메시지
-        broadcastMessage(resultMessage);  // 다른 클라이언트에게 투표 결과 브로드캐스트
+    // 관리자에게 호출 메시지 전송 (이 노드에 접속한 관리자)
+    static void notifyAdmins(ClientRegistry clients, String message) {
+        for (ClientHandler admin : clients.admins()) {
+            admin.sendMessage("[관리자 호출 요청] " + message);
+        }
+    }
 
-        // 투표 결과 처리
-        VoteManager.handleVote(clientId, agree, clients);
+    // 공지 처리 (모든 구역)
+    @Override
+    public void onNotice(String notice) {
+        Metrics.INBOUND_NOTICE.inc();
+        if (!allow(SeatRateLimiter.Kind.CHAT)) {
+            return;
+        }
+        broadcastToAll(notice);
     }
 
-    // 온도 요청 처리
-    private void handleTemperatureRequest(String input) {
+    // 지표 조회 (관리자 전용): Prometheus 텍스트를 한 줄씩 전송
+    @Override
+    public void onMetricsRequest() {
+        Metrics.INBOUND_METRICS.inc();
+        if (!ClientRegistry.isAdmin(clientId)) {
+            sendMessage("[알림] 관리자만 사용할 수 있는 명령입니다.");
+            return;
+        }
+        for (String line : Metrics.render().split("\n")) {
+            sendMessage("[메트릭] " + line);
+        }
+    }
+
+    // 관리자 제어: 값을 모두 검사한 뒤 대상 구역마다 샤드에서 적용하고, 모두 끝나면 한 줄로 응답
+    @Override
+    public void onAdminControl(String command) {
+        Metrics.INBOUND_ADMIN_CONTROL.inc();
+        if (!ClientRegistry.isAdmin(clientId)) {
+            sendMessage(AdminCommand.FAILED + " 관리자만 사용할 수 있는 명령입니다.");
+            return;
+        }
+        AdminCommand parsed;
         try {
-            int temperature = Integer.parseInt(input.split(":")[1].trim());  // 온도 요청 처리
-
-            // 모드에 따라 처리
-            if (AirConditionerManager.getModeChoice().equals("average")) {
-                AirConditionerManager.addTemperatureRequest(temperature);  // 평균 모드에서 온도 요청 추가
-                sendMessage("[알림] 평균 모드로 요청이 반영되었습니다.");
-            } else if (AirConditionerManager.getModeChoice().equals("majority")) {
-                VoteManager.handleVoteRequest(temperature, this, clients);  // 다수결 모드에서 투표 요청
-                sendMessage("[알림] 다수결 모드로 요청이 반영되었습니다.");
-            } else {
-                sendMessage("[알림] 유효하지 않은 모드입니다.");  // 잘못된 모드 처리
+            parsed = AdminCommand.parse(command);
+        } catch (IllegalArgumentException e) {
+            sendMessage(AdminCommand.FAILED + " " + e.getMessage());
+            return;
+        }
+        parsed.apply().whenComplete((done, error) ->
+                sendMessage(error == null ? parsed.summary() : AdminCommand.FAILED + " " + error.getMessage()));
+    }
+
+    // 상태 다시 받기 (변경분이 빠졌다고 판단한 클라이언트가 마지막으로 적용한 버전을 보냄)
+    @Override
+    public void onStateRequest(long lastSeen) {
+        Metrics.INBOUND_STATE.inc();
+        if (!allow(SeatRateLimiter.Kind.SYNC)) {
+            return;
+        }
+        zone.state.subscribe(this, lastSeen);
+    }
+
+    // 일반 메시지 브로드캐스트
+    @Override
+    public void onChat(String message) {
+        Metrics.INBOUND_CHAT.inc();
+        if (!allow(SeatRateLimiter.Kind.CHAT)) {
+            return;
+        }
+        if (ClientRegistry.isAdmin(clientId)) {
+            Cluster.replicateAdminChat(message);  // 다른 노드도 자기 구역 기록에 추가한 뒤 전달
+            deliverAdminChat(clients, message);
+            return;
+        }
+        ChatLog.Entry entry = zone.chatLog.append(message);
+        AdminFeed.recordChat(zone, message);
+        long start = System.nanoTime();
+        ClientHandler[] zoneSeats = clients.seatsIn(zone);
+        deliverChat(zoneSeats, entry);
+        FanoutStats.recordBroadcast(zoneSeats.length);
+        Metrics.BROADCAST_NANOS.record(System.nanoTime() - start);
+    }
+
+    // 관리자 채팅: 모든 구역 기록에 추가하고 구역마다 그 구역의 번호로 전달 (관리자는 자기 구역 번호로 받음)
+    static void deliverAdminChat(ClientRegistry clients, String message) {
+        ClientHandler[] admins = clients.admins();
+        for (Zone target : ZoneManager.all()) {
+            ChatLog.Entry entry = target.chatLog.append(message);
+            deliverChat(clients.seatsIn(target), entry);
+            for (ClientHandler admin : admins) {
+                if (admin.zone == target) {
+                    deliverChat(new ClientHandler[]{admin}, entry);
+                }
+            }
+        }
+    }
+
+    // 채팅 한 건 전송: 번호를 받는 연결에는 "[채팅] <번호> <내용>", 나머지는 내용만 (각각 한 번만 인코딩)
+    private static void deliverChat(ClientHandler[] receivers, ChatLog.Entry entry) {
+        OutboundMessage plain = null;
+        for (ClientHandler client : receivers) {
+            if (client.chatIds) {
+                client.sendMessage(entry.live);
+                continue;
+            }
+            if (plain == null) {
+                plain = new OutboundMessage(entry.message);
+            }
+            client.sendMessage(plain);
+        }
+    }
+
+    // 과거 채팅 기록 요청: beforeId보다 오래된 채팅을 한 페이지 전송한 뒤 다음 요청 번호로 끝을 알림
+    // 관리자는 구역 이름을 붙여 어느 구역의 기록이든 조회 (좌석은 항상 자기 구역, 붙여도 무시)
+    @Override
+    public void onChatHistory(long beforeId, String zoneName) {
+        Metrics.INBOUND_CHAT_HISTORY.inc();
+        Zone target = zone;
+        if (zoneName != null && ClientRegistry.isAdmin(clientId)) {
+            target = ZoneManager.byName(zoneName);
+            if (target == null || !Cluster.owns(target)) {
+                // 클러스터에서 구역 채팅은 맡은 노드에만 기록됨
+                sendMessage(target == null ? "[오류] 알 수 없는 구역입니다: " + zoneName
+                        : "[알림] " + zoneName + " 구역의 채팅은 그 구역을 맡은 노드에서 조회할 수 있습니다.");
+                sendMessage(TextProtocol.HISTORY_END + " 0");
+                return;
             }
-        } catch (NumberFormatException e) {
-            sendMessage("[오류] 잘못된 온도 값입니다.");  // 온도 값 오류 처리
         }
+        ChatLog log = target.chatLog;
+        if (!allow(SeatRateLimiter.Kind.SYNC)) {
+            // 빈 페이지와 같은 번호로 끝을 알려 클라이언트가 응답을 기다리며 멈추지 않게 함
+            sendMessage(TextProtocol.HISTORY_END + " " + (beforeId > 0 ? beforeId : log.nextId()));
+            return;
+        }
+        List<ChatLog.Entry> page = log.page(beforeId, ChatLog.PAGE_SIZE);
+        for (ChatLog.Entry entry : page) {
+            sendMessage(TextProtocol.HISTORY_LINE + " " + entry.id + " " + entry.message);
+        }
+        long next = page.isEmpty() || page.get(0).id <= log.oldestId() ? 0 : page.get(0).id; // 0: 더 없음
+        sendMessage(TextProtocol.HISTORY_END + " " + next);
     }
 
-    // 모드 변경 요청 처리
-    private void handleModeChangeRequest(String input) {
-        String requestedMode = input.split(":")[1].trim();  // 요청된 모드 확인
-        if (!AirConditionerManager.isModeChangeAllowed(requestedMode)) {
-            sendMessage("[알림] 현재 " + AirConditionerManager.getSeason() +
-                    "이므로 '" + requestedMode + "' 모드로 변경이 불가능합니다.");
+    // 값 해석 실패 안내
+    @Override
+    public void onMalformed(String reply) {
+        Metrics.INBOUND_MALFORMED.inc();
+        sendMessage(reply);
+    }
+
+    // 투표 메시지 처리
+    @Override
+    public void onVote(boolean agree, int voteId) {
+        Metrics.INBOUND_VOTE.inc();
+        if (!allow(SeatRateLimiter.Kind.VOTE)) {
+            return;
+        }
+        // 투표 반영 (잠금 없는 집계라 샤드를 거치지 않음). 거부된 표는 알리지 않음
+        if (VoteManager.handleVote(zone, clientId, agree, voteId, clients)) {
+            String resultMessage = clientId + "가 " + (agree ? "찬성" : "반대") + "합니다.";  // 투표 결과 메시지
+            broadcastMessage(resultMessage);  // 다른 클라이언트에게 투표 결과 브로드캐스트
+        }
+    }
+
+    // 온도 요청 처리
+    @Override
+    public void onTemperature(int temperature) {
+        Metrics.INBOUND_TEMPERATURE.inc();
+        if (!allow(SeatRateLimiter.Kind.TEMPERATURE)) {
+            return;
+        }
+        // 모드에 따라 처리
+        String modeChoice = AirConditionerManager.getModeChoice(zone);
+        PreferenceHistogram.Policy policy = PreferenceHistogram.Policy.of(modeChoice);
+        if (policy != null) {
+            AirConditionerManager.addTemperatureRequest(zone, clientId, temperature);  // 집계 모드에서 온도 요청 추가
+            sendMessage("[알림] " + policy.label + " 모드로 요청이 반영되었습니다.");
+        } else if (modeChoice.equals("majority")) {
+            zone.execute(() -> VoteManager.handleVoteRequest(zone, temperature, this, clients));  // 다수결 모드에서 투표 요청
+            sendMessage("[알림] 다수결 모드로 요청이 반영되었습니다.");
         } else {
-            AirConditionerManager.changeMode(requestedMode);  // 모드 변경 처리
-            broadcastMessage("[알림] " + clientId + "번 사용자가 " + requestedMode + " 모드로 변경하였습니다.");
+            sendMessage("[알림] 유효하지 않은 모드입니다.");  // 잘못된 모드 처리
         }
     }
 
-    // 바람 세기 요청 처리
-    private void handleWindSpeedRequest(String input) {
-        try {
-            int delta = Integer.parseInt(input.split(":")[1].trim());  // 바람 세기 조정 값 처리
-            int currentSpeed = AirConditionerManager.getWindSpeed();
+    // 모드 변경 요청 처리 (검사와 변경을 구역 샤드에서 한 번에 수행)
+    @Override
+    public void onModeChange(String requestedMode) {
+        Metrics.INBOUND_MODE.inc();
+        if (!allow(SeatRateLimiter.Kind.CONTROL)) {
+            return;
+        }
+        zone.execute(() -> {
+            if (!AirConditionerManager.isModeChangeAllowed(zone, requestedMode)) {
+                sendMessage("[알림] 현재 " + AirConditionerManager.getSeason(zone) +
+                        "이므로 '" + requestedMode + "' 모드로 변경이 불가능합니다.");
+            } else {
+                AirConditionerManager.changeMode(zone, requestedMode);  // 모드 변경 처리
+                broadcastMessage("[알림] " + clientId + "번 사용자가 " + requestedMode + " 모드로 변경하였습니다.");
+            }
+        });
+    }
+
+    // 바람 세기 요청 처리 (검사와 변경을 구역 샤드에서 한 번에 수행)
+    @Override
+    public void onWindSpeed(int delta) {
+        Metrics.INBOUND_WIND.inc();
+        if (!allow(SeatRateLimiter.Kind.CONTROL)) {
+            return;
+        }
+        zone.execute(() -> {
+            int currentSpeed = AirConditionerManager.getWindSpeed(zone);
             int newSpeed = currentSpeed + delta;
 
             if (newSpeed < 1 || newSpeed > 3) {
                 sendMessage("[알림] 바람 세기는 1단에서 3단 사이로 설정 가능합니다.");
             } else {
-                AirConditionerManager.adjustWindSpeed(delta);  // 바람 세기 조정
+                AirConditionerManager.adjustWindSpeed(zone, delta);  // 바람 세기 조정
             }
-        } catch (NumberFormatException e) {
-            sendMessage("[오류] 잘못된 바람 세기 값입니다.");  // 바람 세기 값 오류 처리
-        }
+        });
     }
 
-    // 클라이언트 연결 해제 처리
-    private void disconnectClient() {
+    // 클라이언트 연결 해제 처리 (여러 번 호출되어도 한 번만 처리)
+    void disconnectClient() {
+        if (!disconnected.compareAndSet(false, true)) {
+            return;
+        }
         try {
-            clientSocket.close();  // 소켓 닫기
+            connection.close();  // 소켓 닫기
+            if (!registered) {
+                return;  // 입장 전 종료: 목록에도 없고 알릴 대상도 없음
+            }
             clients.remove(this);  // 클라이언트 목록에서 제거
-            broadcastMessage(clientId + "번 고객님이 퇴장하셨습니다.");  // 퇴장 메시지 전송
-            System.out.println("[INFO] 클라이언트 연결 해제: " + clientId);
+            if (ClientRegistry.isAdmin(clientId)) {
+                broadcastMessage(clientId + "번 " + Presence.LEFT);
+            } else {
+                zone.presence.left(clientId, clients);  // 퇴장 메시지 전송 (몰리면 묶어서)
+            }
+            EventLog.record(EventLog.Type.CLIENT_DISCONNECTED, clientId);
         } catch (IOException e) {
             System.err.println("[오류] 클라이언트 소켓 닫기 실패: " + clientId);
         }
     }
 
+    // 좌석별 한도 확인 (관리자는 제한 없음). 버려지기 시작하면 요청자에게 한 번만 알림
+    private boolean allow(SeatRateLimiter.Kind kind) {
+        if (ClientRegistry.isAdmin(clientId) || limiter.tryAcquire(kind)) {
+            return true;
+        }
+        if (limiter.shouldWarn()) {
+            sendMessage("[알림] 요청이 너무 많아 일부 메시지가 처리되지 않았습니다. 잠시 후 다시 시도해 주세요.");
+        }
+        return false;
+    }
+
     // 메시지 전송
     public void sendMessage(String message) {
-        out.println(message);  // 클라이언트로 메시지 전송
+        sendMessage(new OutboundMessage(message));
     }
 
-    // 메시지 브로드캐스트 (모든 클라이언트에게 전파)
+    // 인코딩된 메시지 전송 (브로드캐스트에서는 같은 메시지를 모든 수신자가 공유)
+    void sendMessage(OutboundMessage message) {
+        if (!connection.send(message)) {  // 클라이언트 송신 대기열에 추가
+            EventLog.record(EventLog.Type.OUTBOUND_OVERFLOW, clientId);
+            disconnectClient();  // 대기열 초과 정책이 연결 종료인 경우
+        }
+    }
+
+    // 메시지 브로드캐스트 (같은 구역의 좌석에게 전파, 관리자가 보낸 메시지는 전체)
+    // 관리자에게는 복사하지 않고 AdminFeed가 간격마다 요약해서 보냄
+    // 잠금 없는 스냅샷을 순회하므로 브로드캐스트 중 입장/퇴장이 있어도 안전
     private void broadcastMessage(String message) {
-        synchronized (clients) {
-            for (ClientHandler client : clients) {
-                client.sendMessage(message);  // 모든 클라이언트에게 메시지 전송
+        if (ClientRegistry.isAdmin(clientId)) {
+            broadcastToAll(message);
+            return;
+        }
+        long start = System.nanoTime();
+        OutboundMessage encoded = new OutboundMessage(message);  // 수신자 수와 관계없이 한 번만 인코딩
+        ClientHandler[] zoneSeats = clients.seatsIn(zone);
+        for (ClientHandler client : zoneSeats) {
+            client.sendMessage(encoded);  // 구역의 클라이언트에게 메시지 전송
+        }
+        FanoutStats.recordBroadcast(zoneSeats.length);
+        Metrics.BROADCAST_NANOS.record(System.nanoTime() - start);
+    }
+
+    // 모든 구역의 클라이언트에게 전파
+    private void broadcastToAll(String message) {
+        Server.sendMessageToAllClients(message);
+    }
+
+    public String getClientId() {
+        return clientId;  // 클라이언트 아이디 반환
+    }
+
+    public Zone getZone() {
+        return zone;
+    }
+
+    // 송신 대기열에 쌓인 메시지 수 (지표용)
+    int queuedMessages() {
+        return connection.queuedMessages();
+    }
+
+    // 블로킹 채널 출력: 전용 가상 스레드가 대기열에 쌓인 버퍼를 묶어 gathering write로 전송
+    // 인코딩은 send() 시점에 하므로 핸드셰이크 응답(텍스트)과 이후 프레임의 순서가 섞이지 않음
+    // SocketChannel은 쓰기 중 interrupt되면 닫히므로, 종료 요청의 interrupt는 writer가 쓰기 잠금 밖에서 대기할 때만 보냄
+    private static final class SocketConnection implements Connection {
+        private final SocketChannel channel;
+        private final OutboundQueue<ByteBuffer> outbound = new OutboundQueue<>();
+        private final GatheringBatch batch = new GatheringBatch();
+        private final ReentrantLock writeLock = new ReentrantLock();
+        private final Thread writer;
+        private volatile boolean binary = false;
+        private volatile boolean closing = false;
+
+        SocketConnection(SocketChannel channel) {
+            this.channel = channel;
+            this.writer = Thread.ofVirtual().name("writer-" + channel.socket().getPort()).start(this::drain);
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    ByteBuffer first = outbound.take();
+                    writeLock.lock();
+                    try {
+                        Thread.interrupted();  // take() 직후 도착한 종료 요청은 closing으로 확인
+                        batch.add(first);
+                        writePending();
+                        if (closing) {
+                            return;
+                        }
+                    } finally {
+                        writeLock.unlock();
+                    }
+                }
+            } catch (InterruptedException e) {
+                // close()에서 종료 요청: 남은 메시지(예: 중복 자리 안내)를 보내고 종료
+                writeLock.lock();
+                try {
+                    writePending();
+                } catch (IOException ignored) {
+                } finally {
+                    writeLock.unlock();
+                }
+            } catch (IOException e) {
+                // 채널 쓰기 실패: 읽기 스레드가 연결 해제를 처리
             }
         }
 
-        // 관리자에게는 별도로 입장 정보를 전달
-        for (ClientHandler client : clients) {
-            if (client.getClientId().equalsIgnoreCase("admin")) {
-                // "관리자"에게만 입장 정보를 따로 전달
-                if (message.contains("입장하셨습니다")) {
-                    System.out.println("[로그] 관리자에게 메시지 전송: " + message);  // 로그에 출력
-                    client.sendMessage("[고객님이 입장하셨습니다.] " + message);  // 관리자에게 입장 메시지 전송
+        private void writePending() throws IOException {
+            while (batch.fill(outbound)) {
+                while (!batch.writeTo(channel)) {
+                    // 블로킹 채널: 남은 바이트를 이어서 전송
                 }
             }
         }
-    }
 
-    public String getClientId() {
-        return clientId;  // 클라이언트 아이디 반환
+        @Override
+        public boolean send(OutboundMessage message) {
+            if (closing || !channel.isOpen()) {
+                return true;
+            }
+            return outbound.offer(message.buffer(binary));
+        }
+
+        @Override
+        public boolean sendAll(List<OutboundMessage> messages) {
+            if (closing || !channel.isOpen() || messages.isEmpty()) {
+                return true;
+            }
+            return outbound.offer(OutboundMessage.concat(messages, binary));
+        }
+
+        @Override
+        public void enableBinaryFrames() {
+            binary = true;
+        }
+
+        @Override
+        public int queuedMessages() {
+            return outbound.size();
+        }
+
+        @Override
+        public void close() throws IOException {
+            closing = true;
+            try {
+                // 쓰는 중이면 최대 50ms만 기다림 (느린 수신자 때문에 오래 막히지 않도록 제한)
+                if (writeLock.tryLock(50, TimeUnit.MILLISECONDS)) {
+                    try {
+                        writer.interrupt();  // take()에서 대기 중이면 깨움
+                    } finally {
+                        writeLock.unlock();
+                    }
+                    writer.join(50);  // 남은 메시지를 잠깐 기다림
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            outbound.clear();
+            if (outbound.droppedCount() > 0) {
+                EventLog.record(EventLog.Type.OUTBOUND_DROPPED, null, outbound.droppedCount());
+            }
+            channel.close();
+        }
     }
 }
@@ -0,0 +1,114 @@
+package server;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// 접속 중인 클라이언트 목록: 자리 번호/역할(관리자 여부)로 O(1) 조회
+// 브로드캐스트는 등록/해제 시점에 만들어 둔 배열 스냅샷을 잠금 없이 순회
+// 등록/해제 때는 바뀐 연결이 속한 스냅샷(전체 + 그 구역 또는 관리자)만 새로 만듦 (다른 구역의 배열은 그대로)
+public class ClientRegistry {
+    private static final ClientHandler[] EMPTY = new ClientHandler[0];
+
+    private final ConcurrentHashMap<String, ClientHandler> bySeat = new ConcurrentHashMap<>(); // 자리 번호 → 핸들러
+    private final Object writeLock = new Object(); // 등록/해제와 스냅샷 갱신을 하나의 단위로 묶기 위한 잠금
+    private volatile ClientHandler[] all = EMPTY;    // 전체 스냅샷
+    private volatile ClientHandler[] admins = EMPTY; // 관리자 스냅샷
+    private final AtomicReferenceArray<ClientHandler[]> byZone = emptyZones(); // 구역 번호 → 좌석 스냅샷
+
+    // 관리자 연결 여부 (자리 번호 "admin")
+    public static boolean isAdmin(String clientId) {
+        return clientId.equalsIgnoreCase("admin");
+    }
+
+    // 자리 번호가 비어 있을 때만 등록. 같은 자리의 두 연결이 동시에 등록될 수 없음
+    public boolean register(ClientHandler client) {
+        synchronized (writeLock) {
+            if (bySeat.putIfAbsent(key(client.getClientId()), client) != null) {
+                return false;
+            }
+            if (isAdmin(client.getClientId())) {
+                admins = with(admins, client);
+            } else {
+                int zone = client.getZone().getIndex();
+                byZone.set(zone, with(byZone.get(zone), client));
+            }
+            all = with(all, client);
+            return true;
+        }
+    }
+
+    // 해당 핸들러가 등록된 경우에만 제거 (같은 자리의 다른 연결은 건드리지 않음)
+    public boolean remove(ClientHandler client) {
+        synchronized (writeLock) {
+            if (!bySeat.remove(key(client.getClientId()), client)) {
+                return false;
+            }
+            if (isAdmin(client.getClientId())) {
+                admins = without(admins, client);
+            } else {
+                int zone = client.getZone().getIndex();
+                byZone.set(zone, without(byZone.get(zone), client));
+            }
+            all = without(all, client);
+            return true;
+        }
+    }
+
+    // 자리 번호로 조회 (없으면 null)
+    public ClientHandler get(String clientId) {
+        return bySeat.get(key(clientId));
+    }
+
+    // 전체 클라이언트 스냅샷 (반환된 배열은 수정하지 말 것)
+    public ClientHandler[] all() {
+        return all;
+    }
+
+    // 구역에 속한 좌석 스냅샷 (관리자 제외)
+    public ClientHandler[] seatsIn(Zone zone) {
+        return byZone.get(zone.getIndex());
+    }
+
+    // 관리자 스냅샷
+    public ClientHandler[] admins() {
+        return admins;
+    }
+
+    public int size() {
+        return all.length;
+    }
+
+    // 관리자 아이디는 대소문자 구분 없이 하나로 취급
+    private static String key(String clientId) {
+        return isAdmin(clientId) ? "admin" : clientId;
+    }
+
+    private static AtomicReferenceArray<ClientHandler[]> emptyZones() {
+        AtomicReferenceArray<ClientHandler[]> byZone = new AtomicReferenceArray<>(ZoneManager.count());
+        for (int i = 0; i < byZone.length(); i++) {
+            byZone.set(i, EMPTY);
+        }
+        return byZone;
+    }
+
+    // 연결 하나를 더한 새 스냅샷
+    private static ClientHandler[] with(ClientHandler[] snapshot, ClientHandler client) {
+        ClientHandler[] grown = Arrays.copyOf(snapshot, snapshot.length + 1);
+        grown[snapshot.length] = client;
+        return grown;
+    }
+
+    // 연결 하나를 뺀 새 스냅샷 (없으면 그대로)
+    private static ClientHandler[] without(ClientHandler[] snapshot, ClientHandler client) {
+        for (int i = 0; i < snapshot.length; i++) {
+            if (snapshot[i] == client) {
+                ClientHandler[] shrunk = new ClientHandler[snapshot.length - 1];
+                System.arraycopy(snapshot, 0, shrunk, 0, i);
+                System.arraycopy(snapshot, i + 1, shrunk, i, shrunk.length - i);
+                return shrunk;
+            }
+        }
+        return snapshot;
+    }
+}
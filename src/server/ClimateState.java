@@ -0,0 +1,127 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 구역 기후 상태의 버전 관리. 변경마다 버전이 1씩 오르고, 구독한 연결에는 바뀐 값만 (delta) 보냄
+//   전체 상태: "[상태] <버전> season=summer choice=average mode=냉방 temperature=24 wind=1 air=24.0"
+//   변경분:    "[상태 변경] <버전> temperature=22" (관리자 제어는 여러 항목을 한 줄에)
+// 핸드셰이크에 "STATE=<마지막으로 본 버전>" 을 붙인 연결만 구독하며 (0: 처음 접속),
+// 보관 중인 변경분으로 따라잡을 수 있으면 빠진 변경분만, 아니면 전체 상태를 먼저 받음
+// 버전은 서버 시작 시각(ms) × 1000 에서 시작하므로 재시작 후에도 이전 실행의 버전보다 큼
+// 클러스터에서는 구역을 맡은 노드가 버전을 올리고, 다른 노드는 복제된 변경분을 같은 버전으로 적용 (Cluster)
+final class ClimateState {
+    static final String SNAPSHOT = "[상태]";
+    static final String DELTA = "[상태 변경]";
+
+    // -Daircon.state.deltaHistory: 구역마다 보관하는 최근 변경분 수 (재접속 따라잡기용)
+    static final int DEFAULT_DELTA_HISTORY = Integer.getInteger("aircon.state.deltaHistory", 256);
+    private static final long START_VERSION = System.currentTimeMillis() * 1000;
+
+    private static volatile ClientRegistry clients; // 변경분을 보낼 접속 목록
+
+    private final Zone zone;
+    private final String[] deltas; // 버전 → 변경분 한 줄 (링 버퍼)
+    private long version = START_VERSION;
+    private long contiguousFrom = START_VERSION + 1; // 이 버전부터는 변경분이 빠짐없이 보관됨 (복제 중 건너뛰면 다시 시작)
+    private boolean replica = false; // 지금 버전이 맡은 노드에서 복제된 것인지 (이 노드의 시작 버전과는 비교할 수 없음)
+
+    ClimateState(Zone zone) {
+        this.zone = zone;
+        this.deltas = new String[Math.max(1, DEFAULT_DELTA_HISTORY)];
+    }
+
+    static void bind(ClientRegistry registry) {
+        clients = registry;
+    }
+
+    // 값 변경 후 호출: 버전을 올리고 구독 중인 구역 연결에 변경분 전송
+    // 잠금 안에서 보내므로 각 연결은 버전 순서대로, 빠짐없이 받음
+    void publish(String key, Object value) {
+        publish(key + "=" + value);
+    }
+
+    // 여러 항목을 한 버전으로 묶어 보냄 ("season=winter mode=난방", 관리자 제어)
+    synchronized void publish(String changes) {
+        version++;
+        replica = false;
+        Cluster.replicateState(zone, version, changes);  // 잠금 안에서 로그에 넣어 구역 안의 순서 유지
+        send(DELTA + " " + version + " " + changes);
+    }
+
+    // 다른 노드가 맡은 구역의 변경분을 그 버전 그대로 적용 (중간 버전이 빠졌으면 그 전 버전으로는 따라잡지 않음)
+    synchronized void publishReplicated(long replicated, String changes) {
+        if (!replica || replicated != version + 1) {
+            contiguousFrom = replicated;
+        }
+        version = replicated;
+        replica = true;
+        send(DELTA + " " + version + " " + changes);
+    }
+
+    private void send(String line) {
+        deltas[slot(version)] = line;
+
+        ClientRegistry registry = clients;
+        if (registry == null) {
+            return;
+        }
+        OutboundMessage encoded = new OutboundMessage(line);
+        for (ClientHandler client : registry.seatsIn(zone)) {
+            if (client.isStateSubscriber()) {
+                client.sendMessage(encoded);
+            }
+        }
+        for (ClientHandler admin : registry.admins()) {
+            if (admin.isStateSubscriber() && admin.getZone() == zone) {
+                admin.sendMessage(encoded);
+            }
+        }
+    }
+
+    // 연결을 구독자로 만들고 lastSeen 이후의 상태를 전송 (같은 잠금 안이라 이후 변경분과 순서가 섞이지 않음)
+    synchronized void subscribe(ClientHandler client, long lastSeen) {
+        client.markStateSubscriber();
+        for (String line : catchUp(lastSeen)) {
+            client.sendMessage(line);
+        }
+    }
+
+    // lastSeen 이후 변경분 (보관 범위를 벗어났거나 다른 실행의 버전이면 전체 상태 한 줄)
+    synchronized List<String> catchUp(long lastSeen) {
+        List<String> lines = new ArrayList<>();
+        long oldestKept = Math.max(contiguousFrom, version - deltas.length + 1);
+        if (lastSeen < oldestKept - 1 || lastSeen > version) {
+            lines.add(snapshot());
+            return lines;
+        }
+        for (long v = lastSeen + 1; v <= version; v++) {
+            lines.add(deltas[slot(v)]);
+        }
+        return lines;
+    }
+
+    synchronized long version() {
+        return version;
+    }
+
+    // 복제된 변경분이 이미 적용한 버전보다 오래된 것인지 (처음 받는 복제본은 이 노드의 버전과 관계없이 적용)
+    synchronized boolean isStale(long replicated) {
+        return replica && replicated <= version;
+    }
+
+    // 복제용 전체 상태: "<버전> season=... air=..." (Cluster가 다른 노드에 보냄)
+    synchronized String replicationSnapshot() {
+        return snapshot().substring(SNAPSHOT.length() + 1);
+    }
+
+    private String snapshot() {
+        return SNAPSHOT + " " + version + " season=" + zone.season + " choice=" + zone.modeChoice
+                + " mode=" + zone.acMode + " temperature=" + zone.currentTemperature + " wind=" + zone.windSpeed
+                + " air=" + ThermalSimulator.format(zone.airTemperature);
+    }
+
+    private int slot(long v) {
+        return (int) (v % deltas.length);
+    }
+}
@@ -0,0 +1,636 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// 여러 서버 노드를 묶는 클러스터. 구역마다 맡는 노드가 정해져 있고 (구역 번호 % 노드 수, 멈춘 노드의 구역은 목록상 다음 노드가 이어받음)
+// 좌석은 자기 구역을 맡은 노드에만 접속함: 다른 노드에 접속하면 "[노드 이동] host:port" 를 받고 그 노드로 다시 접속
+// 구역 상태 변경분·투표·전체 공지/관리자 채팅/관리자 호출/관리자 제어는 노드마다 번호가 붙은 복제 로그에 쌓이고,
+// 노드 사이의 소켓으로 다른 노드에 그 순서대로 전달됨 (한 줄 = "<번호> <종류> <내용>")
+// 복제본은 맡은 노드와 같은 상태 버전으로 적용하므로, 좌석이 다른 노드로 옮겨 가도 마지막으로 본 버전 이후의 변경분만 받음
+// 다시 연결된 노드는 마지막으로 받은 번호 이후를 이어서 받고, 보관 범위를 벗어났으면 상대가 맡은 구역의 전체 상태부터 받음
+// 과반수 노드와 연결되어 있을 때만 구역을 맡음 (갈라진 쪽 노드가 따로 구역을 맡지 않도록). 합의 알고리즘은 없으므로
+// 멈췄던 노드가 다시 합류하는 순간 두 노드가 잠깐 같은 구역을 맡을 수 있음 (같은 기계나 LAN 안의 몇 대 용도)
+//   -Daircon.cluster.nodes="127.0.0.1:12345:13345,127.0.0.1:12346:13346,127.0.0.1:12347:13347" (host:좌석 포트:노드 간 포트)
+//   -Daircon.cluster.node=1 (이 노드의 순번, 1부터)  -Daircon.cluster.heartbeatMillis=500  -Daircon.cluster.timeoutMillis=2000
+//   -Daircon.cluster.joinMillis=3000 (시작할 때 다른 노드의 상태를 기다리는 최대 시간)  -Daircon.cluster.logSize=4096 (보관하는 로그 줄 수)
+final class Cluster {
+    static final String REDIRECT = "[노드 이동]"; // 좌석 → 맡은 노드 안내: "[노드 이동] host:port"
+    static final long HEARTBEAT_MILLIS = Long.getLong("aircon.cluster.heartbeatMillis", 500);
+    static final long TIMEOUT_MILLIS = Long.getLong("aircon.cluster.timeoutMillis", 2000);
+    static final long JOIN_MILLIS = Long.getLong("aircon.cluster.joinMillis", 3000);
+    static final int LOG_SIZE = Math.max(16, Integer.getInteger("aircon.cluster.logSize", 4096));
+
+    // 노드 간 연결에서만 쓰는 줄 (로그 항목 아님)
+    private static final String HELLO = "HELLO";     // 보내는 쪽 → "HELLO <노드 순번> <합류 완료 1/0>"
+    private static final String RESUME = "RESUME";   // 받는 쪽 → "RESUME <마지막으로 적용한 번호>"
+    private static final String SYNCED = "SYNCED";   // 밀린 항목(또는 전체 상태)을 다 보냄
+    private static final String PING = "PING";       // 보낼 항목이 없을 때 연결 확인
+    // 로그 항목 종류
+    private static final String STATE = "STATE";         // <구역> <버전> <항목=값>...
+    private static final String SNAPSHOT = "SNAPSHOT";   // <구역> <버전> <전체 항목> (버전과 관계없이 덮어씀, 복제된 투표도 새로 받음)
+    private static final String VOTE_OPEN = "VOTE_OPEN"; // <구역> <번호> <온도> <마감 시각> <요청자> <투표권자,...|->
+    private static final String BALLOT = "BALLOT";       // <구역> <번호> <yes|no> <자리>
+    private static final String VOTE_CLOSE = "VOTE_CLOSE"; // <구역> <번호>
+    private static final String BROADCAST = "BROADCAST"; // <메시지> 모든 노드의 모든 연결에 전달
+    private static final String ADMIN_CHAT = "ADMIN_CHAT"; // <메시지> 관리자 채팅 (모든 구역 채팅 기록에도 추가)
+    private static final String ADMIN_CALL = "ADMIN_CALL"; // <메시지> 관리자 호출
+    private static final String CONTROL = "CONTROL";     // <구역> <항목=값>... 관리자 제어 (구역을 맡은 노드만 적용)
+    private static final String READY = "READY";         // 보낸 노드가 합류를 마침
+
+    private static final List<Node> nodes = parseNodes(System.getProperty("aircon.cluster.nodes", ""));
+    private static final int SELF = Integer.getInteger("aircon.cluster.node", 1) - 1;
+    static final boolean ENABLED = nodes.size() > 1;
+
+    private static final ReplicationLog log = new ReplicationLog(LOG_SIZE);
+    private static volatile boolean ready = false;       // 합류를 마치고 구역을 맡을 수 있음
+    private static volatile boolean[] owned = new boolean[0]; // 구역 번호 → 이 노드가 맡는지
+    private static ClientRegistry clients;
+
+    private Cluster() {
+    }
+
+    // 클러스터의 노드 하나 (자기 자신 포함)
+    private static final class Node {
+        final int id;         // 1부터
+        final String host;
+        final int clientPort; // 좌석이 접속하는 포트
+        final int peerPort;   // 노드 간 복제 포트
+        volatile Socket inbound;   // 이 노드가 보내는 복제 연결 (끊기면 null)
+        volatile boolean ready;    // 합류를 마침 (구역을 맡을 수 있음)
+        volatile boolean caughtUp; // 연결 후 밀린 항목을 다 받음
+        volatile long applied;     // 이 노드의 로그에서 마지막으로 적용한 번호
+
+        Node(int id, String host, int clientPort, int peerPort) {
+            this.id = id;
+            this.host = host;
+            this.clientPort = clientPort;
+            this.peerPort = peerPort;
+        }
+
+        boolean available() {
+            return inbound != null && ready;
+        }
+
+        String address() {
+            return host + ":" + clientPort;
+        }
+    }
+
+    private static List<Node> parseNodes(String value) {
+        List<Node> parsed = new ArrayList<>();
+        if (value.isBlank()) {
+            return parsed;
+        }
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("잘못된 클러스터 노드 설정입니다 (host:좌석 포트:노드 간 포트): " + entry);
+            }
+            parsed.add(new Node(parsed.size() + 1, parts[0], Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
+        }
+        return parsed;
+    }
+
+    // 이 노드가 좌석 접속을 받는 포트 (클러스터가 아니면 defaultPort)
+    static int clientPort(int defaultPort) {
+        return ENABLED && SELF >= 0 && SELF < nodes.size() ? nodes.get(SELF).clientPort : defaultPort;
+    }
+
+    // 투표 번호 시작값: 노드마다 다른 범위를 써서 복제된 투표와 번호가 겹치지 않게 함
+    static int voteIdBase() {
+        return ENABLED ? Math.max(0, SELF) * 100_000_000 : 0;
+    }
+
+    // ====== 시작과 구역 분배 ======
+
+    // 서버 시작 시 한 번 호출 (좌석 접속을 받기 전에): 다른 노드와 연결하고, 맡은 구역의 최신 상태를 받을 때까지 기다림
+    static void start(ClientRegistry registry) {
+        if (!ENABLED) {
+            return;
+        }
+        if (SELF < 0 || SELF >= nodes.size()) {
+            throw new IllegalStateException("aircon.cluster.node 값이 노드 목록 범위를 벗어났습니다: " + (SELF + 1));
+        }
+        clients = registry;
+        owned = new boolean[ZoneManager.count()];
+        ServerSocket server;
+        try {
+            server = new ServerSocket();
+            server.setReuseAddress(true);
+            server.bind(new InetSocketAddress(nodes.get(SELF).peerPort));
+        } catch (IOException e) {
+            throw new IllegalStateException("노드 간 포트를 열 수 없습니다: " + nodes.get(SELF).peerPort, e);
+        }
+        Thread.ofPlatform().daemon().name("cluster-accept").start(() -> listen(server));
+        for (Node peer : nodes) {
+            if (peer.id != SELF + 1) {
+                Thread.ofPlatform().daemon().name("cluster-send-" + peer.id).start(() -> send(peer));
+            }
+        }
+
+        // 연결되는 노드에게서 밀린 상태를 다 받을 때까지 (없는 노드가 있으면 joinMillis까지만) 대기
+        long deadline = System.currentTimeMillis() + JOIN_MILLIS;
+        while (System.currentTimeMillis() < deadline && !allCaughtUp()) {
+            sleep(20);
+        }
+        ready = true;
+        log.append(READY);
+        refresh();
+        Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("cluster-monitor").factory())
+                .scheduleAtFixedRate(Cluster::refresh, HEARTBEAT_MILLIS, HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+        System.out.println("[INFO] 클러스터 노드 " + (SELF + 1) + "/" + nodes.size() + " 시작: 연결된 노드 "
+                + (nodesUp() - 1) + "개, 맡은 구역 " + zonesOwned() + "개");
+    }
+
+    private static boolean allCaughtUp() {
+        for (Node peer : nodes) {
+            if (peer.id != SELF + 1 && !peer.caughtUp) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 구역을 맡은 노드인지 (클러스터가 아니면 항상 true)
+    static boolean owns(Zone zone) {
+        if (!ENABLED) {
+            return true;
+        }
+        boolean[] current = owned;
+        return zone.getIndex() < current.length && current[zone.getIndex()];
+    }
+
+    // 구역을 맡은 노드의 좌석 접속 주소 (과반수가 연결되지 않았거나 합류 전이면 null)
+    static String ownerAddress(Zone zone) {
+        int owner = owner(zone.getIndex());
+        return owner < 0 ? null : nodes.get(owner).address();
+    }
+
+    // 구역 번호 % 노드 수 부터 목록 순서대로, 구역을 맡을 수 있는 첫 노드 (-1: 과반수가 연결되지 않음)
+    private static int owner(int zoneIndex) {
+        if (!quorum()) {
+            return -1;
+        }
+        for (int k = 0; k < nodes.size(); k++) {
+            int candidate = (zoneIndex + k) % nodes.size();
+            if (candidate == SELF ? ready : nodes.get(candidate).available()) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean quorum() {
+        return nodesUp() * 2 > nodes.size();
+    }
+
+    // 구역을 맡을 수 있는 노드 수 (자신 포함)
+    static int nodesUp() {
+        int up = ready ? 1 : 0;
+        for (Node peer : nodes) {
+            if (peer.id != SELF + 1 && peer.available()) {
+                up++;
+            }
+        }
+        return up;
+    }
+
+    static int zonesOwned() {
+        int count = 0;
+        for (boolean mine : owned) {
+            if (mine) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // 맡은 구역 다시 계산: 새로 맡은 구역은 진행 중이던 투표를 이어받고, 넘겨준 구역의 좌석은 맡은 노드로 안내
+    // 좌석 안내(연결 종료)는 잠금을 놓은 뒤에 함: 소켓 정리가 노드 연결/끊김 처리를 막지 않도록
+    private static void refresh() {
+        Map<ClientHandler, String> moved = new LinkedHashMap<>(); // 좌석 → 맡은 노드 주소 (없으면 null)
+        synchronized (Cluster.class) {
+            if (!ready) {
+                return;
+            }
+            boolean[] previous = owned;
+            boolean[] next = new boolean[previous.length];
+            for (int i = 0; i < next.length; i++) {
+                next[i] = owner(i) == SELF;
+            }
+            if (Arrays.equals(previous, next)) {
+                return;
+            }
+            owned = next;
+            int gained = 0;
+            int lost = 0;
+            for (Zone zone : ZoneManager.all()) {
+                int i = zone.getIndex();
+                if (next[i] && !previous[i]) {
+                    gained++;
+                    zone.execute(() -> {
+                        VoteManager.adopt(zone, clients);
+                        for (String entry : snapshotEntries(zone)) {
+                            log.append(entry); // 다른 노드의 복제본을 이 노드의 버전과 투표로 맞춤
+                        }
+                    });
+                } else if (!next[i] && previous[i]) {
+                    lost++;
+                    String address = ownerAddress(zone);
+                    for (ClientHandler seat : clients.seatsIn(zone)) {
+                        moved.put(seat, address);
+                    }
+                }
+            }
+            EventLog.record(EventLog.Type.ZONES_REASSIGNED, null,
+                    "맡은 구역 " + zonesOwned() + "개 (이어받음 " + gained + ", 넘겨줌 " + lost + ")");
+        }
+        moved.forEach(Cluster::redirect);
+    }
+
+    // 좌석에 맡은 노드를 알리고 연결 종료 (맡은 노드가 없으면 잠시 후 다시 접속하도록 안내)
+    static void redirect(ClientHandler seat, String address) {
+        Metrics.CLUSTER_REDIRECTS.inc();
+        EventLog.record(EventLog.Type.SEAT_REDIRECTED, seat.getClientId(), address);
+        seat.sendMessage(address != null ? REDIRECT + " " + address
+                : "[알림] 서버 노드 과반수와 연결되지 않아 잠시 후 다시 접속합니다.");
+        seat.disconnectClient();
+    }
+
+    // ====== 복제 로그에 추가 (클러스터가 아니면 아무것도 하지 않음) ======
+
+    // 구역 상태 변경분 (ClimateState의 잠금 안에서 호출되므로 구역 안의 순서가 로그 순서와 같음)
+    static void replicateState(Zone zone, long version, String changes) {
+        if (ENABLED) {
+            log.append(STATE + " " + zone.getIndex() + " " + version + " " + changes);
+        }
+    }
+
+    static void replicateVoteOpened(VoteSession session) {
+        if (ENABLED) {
+            log.append(voteOpenEntry(session));
+        }
+    }
+
+    static void replicateBallot(VoteSession session, String seatId, boolean agree) {
+        if (ENABLED) {
+            log.append(ballotEntry(session, seatId, agree));
+        }
+    }
+
+    static void replicateVoteClosed(VoteSession session) {
+        if (ENABLED) {
+            log.append(VOTE_CLOSE + " " + session.zone.getIndex() + " " + session.id);
+        }
+    }
+
+    static void replicateBroadcast(String message) {
+        if (ENABLED) {
+            log.append(BROADCAST + " " + message);
+        }
+    }
+
+    static void replicateAdminChat(String message) {
+        if (ENABLED) {
+            log.append(ADMIN_CHAT + " " + message);
+        }
+    }
+
+    static void replicateAdminCall(String message) {
+        if (ENABLED) {
+            log.append(ADMIN_CALL + " " + message);
+        }
+    }
+
+    // 다른 노드가 맡은 구역에 대한 관리자 제어 (맡은 노드가 검사 후 적용하고 상태 변경분으로 돌아옴)
+    static void replicateControl(Zone zone, String changes) {
+        if (ENABLED) {
+            log.append(CONTROL + " " + zone.getIndex() + " " + changes);
+        }
+    }
+
+    private static String voteOpenEntry(VoteSession session) {
+        Set<String> eligible = session.eligible();
+        return VOTE_OPEN + " " + session.zone.getIndex() + " " + session.id + " " + session.temperature + " "
+                + session.deadlineMillis + " " + session.requester + " " + (eligible.isEmpty() ? "-" : String.join(",", eligible));
+    }
+
+    private static String ballotEntry(VoteSession session, String seatId, boolean agree) {
+        return BALLOT + " " + session.zone.getIndex() + " " + session.id + " " + (agree ? "yes" : "no") + " " + seatId;
+    }
+
+    // 노드마다 하나인 순서 있는 복제 로그 (최근 LOG_SIZE줄만 보관하는 링 버퍼)
+    // 번호는 시작 시각(ms) × 1000 에서 시작하므로 재시작한 노드의 번호는 이전 실행보다 큼 (받는 쪽은 전체 상태부터 다시 받음)
+    private static final class ReplicationLog {
+        private final String[] lines;
+        private final long start = System.currentTimeMillis() * 1000;
+        private long last = start;
+
+        ReplicationLog(int capacity) {
+            this.lines = new String[capacity];
+        }
+
+        synchronized void append(String entry) {
+            last++;
+            lines[(int) (last % lines.length)] = last + " " + entry;
+            notifyAll();
+        }
+
+        synchronized long last() {
+            return last;
+        }
+
+        // after 이후의 줄 (없으면 waitMillis까지 기다림, 그래도 없으면 빈 목록). 보관 범위를 벗어났으면 null
+        synchronized List<String> after(long after, long waitMillis) throws InterruptedException {
+            if (after == last) {
+                wait(waitMillis);
+            }
+            if (after < Math.max(start, last - lines.length) || after > last) {
+                return null;
+            }
+            List<String> pending = new ArrayList<>((int) (last - after));
+            for (long n = after + 1; n <= last; n++) {
+                pending.add(lines[(int) (n % lines.length)]);
+            }
+            return pending;
+        }
+    }
+
+    // ====== 보내는 쪽: 다른 노드마다 스레드 하나가 연결을 유지하며 로그를 순서대로 전송 ======
+
+    private static void send(Node peer) {
+        while (true) {
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(peer.host, peer.peerPort), (int) TIMEOUT_MILLIS);
+                socket.setTcpNoDelay(true);
+                BufferedReader in = reader(socket);
+                Writer out = writer(socket);
+                out.write(HELLO + " " + (SELF + 1) + " " + (ready ? 1 : 0) + "\n");
+                out.flush();
+                socket.setSoTimeout((int) TIMEOUT_MILLIS);
+                String resume = in.readLine();
+                if (resume == null || !resume.startsWith(RESUME + " ")) {
+                    throw new IOException("잘못된 응답: " + resume);
+                }
+                socket.setSoTimeout(0);
+                stream(out, Long.parseLong(resume.substring(RESUME.length() + 1)));
+            } catch (IOException | NumberFormatException e) {
+                // 상대 노드가 아직 없거나 연결이 끊김: 잠시 후 다시 연결
+            } catch (InterruptedException e) {
+                return;
+            }
+            sleep(HEARTBEAT_MILLIS);
+        }
+    }
+
+    // from 이후의 로그를 계속 전송 (보관 범위를 벗어났으면 맡은 구역의 전체 상태부터)
+    private static void stream(Writer out, long from) throws IOException, InterruptedException {
+        long next = from;
+        boolean synced = false;
+        while (true) {
+            List<String> pending = log.after(next, synced ? HEARTBEAT_MILLIS : 1);
+            if (pending == null) {
+                next = sendSnapshot(out);
+            } else if (pending.isEmpty()) {
+                out.write(PING + "\n");
+            } else {
+                for (String line : pending) {
+                    out.write(line);
+                    out.write('\n');
+                }
+                next += pending.size();
+                Metrics.CLUSTER_SENT.add(pending.size());
+            }
+            if (!synced) {
+                out.write(SYNCED + "\n");
+                synced = true;
+            }
+            out.flush();
+        }
+    }
+
+    // 맡은 구역의 현재 상태와 진행 중인 투표를 지금 로그 번호로 전송. 이후 항목은 그 번호 다음부터
+    // (상태를 읽는 사이에 추가된 항목은 다시 보내지만 같은 값이라 받는 쪽 결과는 같음)
+    private static long sendSnapshot(Writer out) throws IOException {
+        long at = log.last();
+        for (Zone zone : ZoneManager.all()) {
+            if (!owns(zone)) {
+                continue;
+            }
+            for (String entry : snapshotEntries(zone)) {
+                out.write(at + " " + entry + "\n");
+            }
+        }
+        Metrics.CLUSTER_SNAPSHOTS.inc();
+        return at;
+    }
+
+    // 구역 하나의 전체 상태와 진행 중인 투표 (받는 쪽은 복제된 투표를 버리고 이 항목들로 다시 받음)
+    private static List<String> snapshotEntries(Zone zone) {
+        List<String> entries = new ArrayList<>();
+        entries.add(SNAPSHOT + " " + zone.getIndex() + " " + zone.state.replicationSnapshot());
+        for (VoteSession session : VoteManager.openSessionList()) {
+            if (session.isClosed() || session.zone != zone) {
+                continue;
+            }
+            entries.add(voteOpenEntry(session));
+            for (Map.Entry<String, Boolean> ballot : session.ballots().entrySet()) {
+                entries.add(ballotEntry(session, ballot.getKey(), ballot.getValue()));
+            }
+        }
+        return entries;
+    }
+
+    // ====== 받는 쪽: 들어오는 연결마다 스레드 하나가 순서대로 적용 ======
+
+    private static void listen(ServerSocket server) {
+        while (true) {
+            try {
+                Socket socket = server.accept();
+                Thread.ofPlatform().daemon().name("cluster-receive").start(() -> receive(socket));
+            } catch (IOException e) {
+                System.err.println("[ERROR] 노드 간 연결 수락 실패: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void receive(Socket socket) {
+        Node peer = null;
+        try (socket) {
+            socket.setSoTimeout((int) TIMEOUT_MILLIS); // 이 시간 동안 아무것도 오지 않으면 멈춘 노드로 봄
+            socket.setTcpNoDelay(true);
+            BufferedReader in = reader(socket);
+            String[] hello = String.valueOf(in.readLine()).split(" ");
+            if (hello.length != 3 || !hello[0].equals(HELLO)) {
+                return;
+            }
+            int id = Integer.parseInt(hello[1]);
+            if (id < 1 || id > nodes.size() || id == SELF + 1) {
+                return;
+            }
+            peer = nodes.get(id - 1);
+            Socket previous = peer.inbound;
+            peer.caughtUp = false;
+            peer.ready = hello[2].equals("1");
+            peer.inbound = socket;
+            if (previous != null) {
+                previous.close(); // 같은 노드가 다시 연결: 이전 연결은 버림
+            }
+            Writer out = writer(socket);
+            out.write(RESUME + " " + peer.applied + "\n");
+            out.flush();
+            EventLog.record(EventLog.Type.PEER_CONNECTED, null, "노드 " + id);
+            refresh();
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                apply(peer, line);
+            }
+        } catch (IOException | RuntimeException e) {
+            // 연결이 끊겼거나 시간 초과: 아래에서 노드를 빼고 구역을 다시 나눔
+        } finally {
+            if (peer != null && peer.inbound == socket) {
+                peer.inbound = null;
+                peer.caughtUp = false;
+                EventLog.record(EventLog.Type.PEER_LOST, null, "노드 " + peer.id);
+                refresh();
+            }
+        }
+    }
+
+    private static void apply(Node peer, String line) {
+        if (line.equals(PING)) {
+            return;
+        }
+        if (line.equals(SYNCED)) {
+            peer.caughtUp = true;
+            return;
+        }
+        int space = line.indexOf(' ');
+        long sequence = Long.parseLong(line.substring(0, space));
+        String entry = line.substring(space + 1);
+        int kindEnd = entry.indexOf(' ');
+        String kind = kindEnd < 0 ? entry : entry.substring(0, kindEnd);
+        String body = kindEnd < 0 ? "" : entry.substring(kindEnd + 1);
+        switch (kind) {
+            case STATE:
+            case SNAPSHOT: {
+                String[] parts = body.split(" ", 3);
+                Zone zone = zoneAt(parts[0]);
+                long version = Long.parseLong(parts[1]);
+                boolean snapshot = kind.equals(SNAPSHOT);
+                if (zone != null) {
+                    zone.execute(() -> {
+                        if (!owns(zone)) {
+                            if (snapshot) {
+                                VoteManager.dropReplicas(zone); // 이어지는 VOTE_OPEN/BALLOT로 다시 받음
+                            }
+                            AirConditionerManager.applyReplicated(zone, version, parts[2], snapshot);
+                        }
+                    });
+                }
+                break;
+            }
+            case VOTE_OPEN: {
+                String[] parts = body.split(" ");
+                Zone zone = zoneAt(parts[0]);
+                if (zone != null) {
+                    Set<String> eligible = parts[5].equals("-") ? Set.of() : Set.of(parts[5].split(","));
+                    VoteSession session = new VoteSession(Integer.parseInt(parts[1]), zone, parts[4],
+                            Integer.parseInt(parts[2]), Long.parseLong(parts[3]), eligible);
+                    zone.execute(() -> {
+                        if (!owns(zone)) {
+                            VoteManager.replicaOpened(session);
+                        }
+                    });
+                }
+                break;
+            }
+            case BALLOT: {
+                String[] parts = body.split(" ", 4);
+                Zone zone = zoneAt(parts[0]);
+                if (zone != null) {
+                    int id = Integer.parseInt(parts[1]);
+                    zone.execute(() -> VoteManager.replicaBallot(id, parts[3], parts[2].equals("yes")));
+                }
+                break;
+            }
+            case VOTE_CLOSE: {
+                String[] parts = body.split(" ");
+                Zone zone = zoneAt(parts[0]);
+                if (zone != null) {
+                    int id = Integer.parseInt(parts[1]);
+                    zone.execute(() -> VoteManager.replicaClosed(id));
+                }
+                break;
+            }
+            case BROADCAST:
+                Server.deliverToLocalClients(body);
+                break;
+            case ADMIN_CHAT:
+                ClientHandler.deliverAdminChat(clients, body);
+                break;
+            case ADMIN_CALL:
+                ClientHandler.notifyAdmins(clients, body);
+                break;
+            case CONTROL: {
+                String[] parts = body.split(" ", 2);
+                Zone zone = zoneAt(parts[0]);
+                if (zone != null && owns(zone)) {
+                    try {
+                        AdminCommand command = AdminCommand.parse(List.of(zone), parts[1]);
+                        zone.execute(() -> AirConditionerManager.applyAdminCommand(zone, command));
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("[WARNING] 다른 노드에서 받은 관리자 제어를 적용할 수 없습니다: " + e.getMessage());
+                    }
+                }
+                break;
+            }
+            case READY:
+                peer.ready = true;
+                refresh();
+                break;
+            default:
+                System.out.println("[WARNING] 알 수 없는 복제 항목: " + kind);
+        }
+        peer.applied = sequence;
+        Metrics.CLUSTER_APPLIED.inc();
+    }
+
+    private static Zone zoneAt(String index) {
+        int i = Integer.parseInt(index);
+        return i < ZoneManager.count() ? ZoneManager.all().get(i) : null; // 구역 설정이 다른 노드는 남는 구역만
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    private static Writer writer(Socket socket) throws IOException {
+        return new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
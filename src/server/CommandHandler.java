@@ -0,0 +1,28 @@
+package server;
+
+// 텍스트/바이너리 프로토콜이 해석한 명령을 받는 쪽 (ClientHandler가 구현)
+public interface CommandHandler {
+    void onAdminCall(String message);      // 관리자 호출
+
+    void onNotice(String notice);          // [공지] (원문 그대로)
+
+    void onTemperature(int temperature);   // 온도 설정 요청
+
+    void onVote(boolean agree, int voteId); // 투표 (voteId 0: 구역의 최근 투표)
+
+    void onModeChange(String mode);        // 냉방/난방 모드 변경
+
+    void onWindSpeed(int delta);           // 바람 세기 조정
+
+    void onStateRequest(long lastSeen);    // 구역 상태 다시 받기 (lastSeen 이후 변경분 또는 전체 상태)
+
+    void onMetricsRequest();               // 지표 조회 (관리자 전용)
+
+    void onAdminControl(String command);   // 관리자 제어 "<대상 구역> <항목=값>..." (인증된 관리자 전용)
+
+    void onChat(String message);           // 일반 채팅
+
+    void onChatHistory(long beforeId, String zoneName); // 과거 채팅 요청 (beforeId 0: 가장 최근부터, zoneName: 관리자가 고른 구역, 없으면 null)
+
+    void onMalformed(String reply);        // 값 해석 실패 (reply: 요청자에게 보낼 안내)
+}
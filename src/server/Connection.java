@@ -0,0 +1,36 @@
+package server;
+
+import java.io.IOException;
+import java.util.List;
+
+// 클라이언트 연결의 출력 측 추상화 (블로킹 소켓 / NIO 채널 공통)
+interface Connection {
+    // 메시지를 송신 대기열에 추가 (소켓 쓰기는 기다리지 않음)
+    // 인코딩된 버퍼는 메시지가 보유하므로 여러 연결에 같은 메시지를 보내도 인코딩은 한 번
+    // false: 대기열 초과 정책에 따라 연결을 끊어야 함
+    boolean send(OutboundMessage message);
+
+    // 한 명에게만 보내는 메시지
+    default boolean send(String message) {
+        return send(new OutboundMessage(message));
+    }
+
+    // 여러 메시지를 순서대로 한 번에 추가 (사이에 다른 메시지가 끼지 않고, 대기열 한 칸/쓰기 한 번)
+    default boolean sendAll(List<OutboundMessage> messages) {
+        for (OutboundMessage message : messages) {
+            if (!send(message)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 핸드셰이크 협상 이후 송신 메시지를 바이너리 프레임(OP_TEXT)으로 인코딩
+    void enableBinaryFrames();
+
+    // 송신 대기열에 남은 메시지 수
+    int queuedMessages();
+
+    // 연결 종료 (여러 번 호출되어도 안전해야 함)
+    void close() throws IOException;
+}
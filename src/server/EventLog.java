@@ -0,0 +1,236 @@
+package server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// 서버 이벤트 기록: 핸들러 스레드는 미리 만들어 둔 링 버퍼 칸에 (종류, 자리, 내용)만 채우고 바로 돌아감
+// 문자열 조립과 파일/콘솔 쓰기는 전용 스레드가 모아서 한 번에 처리 (콘솔 스트림 잠금을 두고 핸들러끼리 다투지 않음)
+// 기록 수준은 종류마다 정해져 있어, 꺼진 수준의 이벤트는 칸을 잡기 전에 걸러짐 (문자열도 만들지 않음)
+// 기록 스레드가 밀려 링이 가득 차면 기다리지 않고 버린 뒤 aircon_log_dropped_total 로 셈
+//   -Daircon.log.level (debug, info, warning, error; 기본 info)  -Daircon.log.console (콘솔에도 출력, 기본 true)
+//   -Daircon.log.dir (기본 logs, 빈 값이면 파일에 쓰지 않음)  -Daircon.log.fileBytes (파일 하나 크기, 기본 8MB)
+//   -Daircon.log.files (보관하는 파일 수, 기본 5)  -Daircon.log.bufferSize (링 칸 수, 2의 거듭제곱으로 올림, 기본 8192)
+final class EventLog {
+    enum Level { DEBUG, INFO, WARNING, ERROR }
+
+    // 이벤트 종류: 수준과 사람이 읽는 설명 (기록 파일의 type 열은 이름을 소문자로)
+    enum Type {
+        MESSAGE_RECEIVED(Level.DEBUG, "메시지 수신"),
+        SEAT_RECEIVED(Level.INFO, "자리 번호 수신"),
+        CLIENT_REGISTERED(Level.INFO, "클라이언트가 리스트에 추가되었습니다"),
+        DUPLICATE_SEAT(Level.WARNING, "이미 연결된 클라이언트입니다"),
+        ADMIN_REJECTED(Level.WARNING, "관리자 인증 토큰이 맞지 않아 연결을 종료합니다"),
+        CLIENT_CONNECTED(Level.INFO, "클라이언트 연결"),
+        CLIENT_DISCONNECTED(Level.INFO, "클라이언트 연결 해제"),
+        HANDSHAKE_TIMEOUT(Level.WARNING, "자리 번호를 받지 못해 연결을 종료합니다"),
+        OUTBOUND_OVERFLOW(Level.WARNING, "송신 대기열 초과로 연결을 종료합니다"),
+        OUTBOUND_DROPPED(Level.INFO, "송신 대기열 초과로 버린 메시지 수"),
+        TEMPERATURE_REQUEST(Level.INFO, "사용자 요청 온도 추가"),
+        TEMPERATURE_OUT_OF_RANGE(Level.WARNING, "설정 가능한 온도 범위는 18°C에서 26°C입니다"),
+        ZONE_CHANGED(Level.INFO, "구역 상태 변경"),
+        PEER_CONNECTED(Level.INFO, "클러스터 노드 연결"),
+        PEER_LOST(Level.WARNING, "클러스터 노드 연결 끊김"),
+        ZONES_REASSIGNED(Level.INFO, "클러스터 구역 분배 변경"),
+        SEAT_REDIRECTED(Level.INFO, "구역을 맡은 노드로 안내");
+
+        final Level level;
+        final String description;
+        final String key;
+
+        Type(Level level, String description) {
+            this.level = level;
+            this.description = description;
+            this.key = name().toLowerCase();
+        }
+    }
+
+    static final Level LEVEL = Level.valueOf(System.getProperty("aircon.log.level", "info").toUpperCase());
+    private static final boolean CONSOLE = Boolean.parseBoolean(System.getProperty("aircon.log.console", "true"));
+    private static final String DIR = System.getProperty("aircon.log.dir", "logs");
+    private static final long FILE_BYTES = Long.getLong("aircon.log.fileBytes", 8 * 1024 * 1024);
+    private static final int FILES = Math.max(1, Integer.getInteger("aircon.log.files", 5));
+    private static final int CAPACITY = Integer.highestOneBit(Math.max(2, Integer.getInteger("aircon.log.bufferSize", 8192)) * 2 - 1);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private static final Event[] ring = new Event[CAPACITY];
+    private static final int MASK = CAPACITY - 1;
+    private static final AtomicLong claimed = new AtomicLong();  // 다음에 잡을 칸 번호
+    private static volatile long consumed = 0;                   // 기록 스레드가 다음에 읽을 칸 번호
+    private static volatile Thread writer;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            ring[i] = new Event();
+        }
+    }
+
+    private EventLog() {
+    }
+
+    // 이 종류의 이벤트를 기록하는지 (호출 전에 값 조립이 필요한 경우에만 확인)
+    static boolean enabled(Type type) {
+        return type.level.compareTo(LEVEL) >= 0;
+    }
+
+    // 이벤트 기록 (기다리지 않음). detail은 기록 스레드에서 문자열로 바뀌므로 바뀌지 않는 값만 넘김
+    static void record(Type type, String seat, Object detail) {
+        if (!enabled(type)) {
+            return;
+        }
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= CAPACITY) {
+                Metrics.LOG_DROPPED.inc();  // 기록 스레드가 밀림: 핸들러를 막지 않고 버림
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        Event event = ring[(int) sequence & MASK];
+        event.wallMillis = System.currentTimeMillis();
+        event.type = type;
+        event.seat = seat;
+        event.detail = detail;
+        event.published = sequence;  // 칸을 채운 뒤 공개
+        if (writer == null) {
+            start();
+        }
+    }
+
+    static void record(Type type, String seat) {
+        record(type, seat, null);
+    }
+
+    // 기록 스레드 시작 (처음 기록할 때 한 번)
+    private static synchronized void start() {
+        if (writer != null) {
+            return;
+        }
+        writer = Thread.ofPlatform().daemon().name("event-log").start(new Writer());
+        Runtime.getRuntime().addShutdownHook(new Thread(EventLog::awaitDrained, "event-log-drain"));
+    }
+
+    // 종료 직전에 남은 이벤트를 기록 스레드가 쓸 시간을 잠깐 줌
+    private static void awaitDrained() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+        while (consumed < claimed.get() && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    private static final class Event {
+        volatile long published = -1; // 이 칸에 채워진 번호 (기록 스레드는 자기 차례 번호가 보일 때까지 읽지 않음)
+        long wallMillis;
+        Type type;
+        String seat;
+        Object detail;
+    }
+
+    // 링에서 공개된 이벤트를 모아 한 줄씩 만들고, 묶음마다 파일/콘솔에 한 번 씀
+    private static final class Writer implements Runnable {
+        private final StringBuilder file = new StringBuilder(64 * 1024);
+        private final StringBuilder console = new StringBuilder(64 * 1024);
+        private final PrintStream out = System.out;
+        private OutputStream stream;
+        private long streamBytes = 0;
+
+        @Override
+        public void run() {
+            while (true) {
+                long next = consumed;
+                int batch = 0;
+                Event event;
+                while ((event = ring[(int) next & MASK]).published == next && batch < CAPACITY) {
+                    append(event);
+                    event.detail = null;  // 다 쓴 값은 바로 놓아줌
+                    next++;
+                    batch++;
+                }
+                consumed = next;  // 칸 반납
+                if (batch == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                Metrics.LOG_WRITTEN.add(batch);
+                flush();
+            }
+        }
+
+        private void append(Event event) {
+            String detail = event.detail == null ? "" : String.valueOf(event.detail);
+            String seat = event.seat == null ? "-" : event.seat;
+            file.append(TIME.format(Instant.ofEpochMilli(event.wallMillis))).append('\t')
+                    .append(event.type.level).append('\t')
+                    .append(event.type.key).append('\t')
+                    .append(seat).append('\t')
+                    .append(detail.replace('\n', ' ')).append('\n');
+            if (CONSOLE) {
+                console.append('[').append(event.type.level).append("] ").append(event.type.description);
+                if (event.seat != null) {
+                    console.append(" (").append(event.seat).append(')');
+                }
+                if (!detail.isEmpty()) {
+                    console.append(": ").append(detail);
+                }
+                console.append('\n');
+            }
+        }
+
+        private void flush() {
+            if (CONSOLE && console.length() > 0) {
+                out.print(console);
+                out.flush();
+                console.setLength(0);
+            }
+            if (!DIR.isEmpty()) {
+                try {
+                    byte[] bytes = file.toString().getBytes(StandardCharsets.UTF_8);
+                    if (stream == null || streamBytes + bytes.length > FILE_BYTES) {
+                        roll();
+                    }
+                    stream.write(bytes);
+                    stream.flush();
+                    streamBytes += bytes.length;
+                } catch (IOException e) {
+                    System.err.println("[ERROR] 이벤트 기록 파일에 쓸 수 없습니다: " + e.getMessage());
+                    stream = null;  // 다음 묶음에서 새 파일로 다시 시도
+                }
+            }
+            file.setLength(0);
+        }
+
+        // server.log → server.1.log → ... → server.<FILES-1>.log 순으로 밀고 새 파일 시작
+        private void roll() throws IOException {
+            if (stream != null) {
+                stream.close();
+            }
+            Path dir = Path.of(DIR);
+            Files.createDirectories(dir);
+            Files.deleteIfExists(dir.resolve(fileName(FILES - 1)));
+            for (int i = FILES - 2; i >= 0; i--) {
+                Path from = dir.resolve(fileName(i));
+                if (Files.exists(from)) {
+                    Files.move(from, dir.resolve(fileName(i + 1)));
+                }
+            }
+            stream = Files.newOutputStream(dir.resolve(fileName(0)), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            streamBytes = 0;
+        }
+
+        private static String fileName(int index) {
+            return index == 0 ? "server.log" : "server." + index + ".log";
+        }
+    }
+}
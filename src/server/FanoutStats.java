@@ -0,0 +1,80 @@
+package server;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// 브로드캐스트 비용 집계: 인코딩(버퍼 할당과 바이트 복사)이 수신자 수와 무관하게 메시지당 형식별 1회인지 확인용
+// -Daircon.fanout.reportSeconds=N 이면 N초마다, 그렇지 않으면 종료 시 한 번 요약 출력
+final class FanoutStats {
+    private static final LongAdder broadcasts = new LongAdder();  // 브로드캐스트 횟수
+    private static final LongAdder recipients = new LongAdder();  // 누적 수신자 수
+    private static final LongAdder encodings = new LongAdder();   // 인코딩 버퍼 할당 수
+    private static final LongAdder encodedBytes = new LongAdder(); // 인코딩하며 복사한 바이트 수
+    private static final LongAdder gatherWrites = new LongAdder(); // 버퍼 여러 개를 한 번에 쓴 횟수
+
+    private FanoutStats() {
+    }
+
+    static void recordBroadcast(int recipientCount) {
+        broadcasts.increment();
+        recipients.add(recipientCount);
+    }
+
+    static void recordEncoding(int bytes) {
+        encodings.increment();
+        encodedBytes.add(bytes);
+    }
+
+    static void recordGatherWrite() {
+        gatherWrites.increment();
+    }
+
+    static long broadcasts() {
+        return broadcasts.sum();
+    }
+
+    static long recipients() {
+        return recipients.sum();
+    }
+
+    static long encodings() {
+        return encodings.sum();
+    }
+
+    static long encodedBytes() {
+        return encodedBytes.sum();
+    }
+
+    static long gatherWrites() {
+        return gatherWrites.sum();
+    }
+
+    // 개별 전송(sendMessage)의 인코딩도 함께 집계되므로 브로드캐스트당 값은 상한으로 봐야 함
+    static String summary() {
+        long b = broadcasts.sum();
+        double perBroadcast = b == 0 ? 0 : 1.0 / b;
+        return String.format("[INFO] 브로드캐스트 %d회, 평균 수신자 %.1f명, 브로드캐스트당 버퍼 할당 %.2f개 / 복사 %.0f바이트, 묶음 쓰기 %d회",
+                b, recipients.sum() * perBroadcast, encodings.sum() * perBroadcast,
+                encodedBytes.sum() * perBroadcast, gatherWrites.sum());
+    }
+
+    // 서버 시작 시 한 번 호출
+    static void startReporting() {
+        long seconds = Long.getLong("aircon.fanout.reportSeconds", 0);
+        if (seconds > 0) {
+            Thread.ofPlatform().daemon().name("fanout-stats").start(() -> {
+                try {
+                    while (true) {
+                        Thread.sleep(seconds * 1000);
+                        System.out.println(summary());
+                    }
+                } catch (InterruptedException ignored) {
+                }
+            });
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (broadcasts.sum() > 0) {
+                System.out.println(summary());
+            }
+        }));
+    }
+}
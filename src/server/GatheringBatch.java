@@ -0,0 +1,53 @@
+package server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+
+// 송신 대기열에서 버퍼를 최대 MAX개까지 모아 gathering write 한 번으로 전송
+// 연결마다 하나, 쓰기 담당 스레드(블로킹 writer / NIO 루프) 전용
+final class GatheringBatch {
+    static final int MAX = 16;
+
+    private final ByteBuffer[] buffers = new ByteBuffer[MAX];
+    private int start = 0; // 아직 다 보내지 못한 첫 버퍼
+    private int end = 0;
+
+    // 이전 묶음을 모두 보냈으면 대기열에서 새로 채움. 보낼 버퍼가 있으면 true
+    boolean fill(OutboundQueue<ByteBuffer> outbound) {
+        if (start == end) {
+            start = 0;
+            end = 0;
+        }
+        ByteBuffer next;
+        while (end < MAX && (next = outbound.poll()) != null) {
+            buffers[end++] = next;
+        }
+        return start < end;
+    }
+
+    // 대기열을 거치지 않고 먼저 꺼낸 버퍼를 묶음 앞에 추가 (비어 있을 때만 호출)
+    void add(ByteBuffer buffer) {
+        buffers[end++] = buffer;
+    }
+
+    // 한 번 쓰기. 묶음을 모두 보냈으면 true (논블로킹 채널에서는 false일 수 있음)
+    boolean writeTo(GatheringByteChannel channel) throws IOException {
+        if (end - start > 1) {
+            FanoutStats.recordGatherWrite();
+        }
+        channel.write(buffers, start, end - start);
+        while (start < end && !buffers[start].hasRemaining()) {
+            buffers[start++] = null;
+        }
+        return start == end;
+    }
+
+    void clear() {
+        while (start < end) {
+            buffers[start++] = null;
+        }
+        start = 0;
+        end = 0;
+    }
+}
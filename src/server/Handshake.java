@@ -0,0 +1,65 @@
+package server;
+
+// 접속 직후 첫 줄: "<자리 번호> [옵션...]"
+// 기존 클라이언트는 자리 번호만 보내고, 새 클라이언트는 "AYRB/<버전>" 으로 바이너리 프레임을 요청
+// "STATE=<버전>" 을 붙이면 구역 상태를 구독 (마지막으로 본 버전 이후만 받음, 0이면 전체 상태)
+// "CHAT=<번호>" 를 붙이면 그 번호 이후의 채팅을 다시 받고 (0: 처음 접속, 최근 채팅 몇 개), 실시간 채팅에도 번호가 붙음
+// (없으면 번호 없는 채팅과 최근 채팅 몇 개)
+// "AUTH=<토큰>" 은 관리자 연결의 인증 토큰 (토큰이 설정된 서버는 맞지 않으면 관리자 자리를 등록하지 않음, AdminCommand)
+final class Handshake {
+    static final String BINARY_TOKEN = "AYRB/"; // 바이너리 프로토콜 요청/응답 접두사
+    static final String STATE_TOKEN = "STATE="; // 상태 구독 요청 접두사
+    static final String CHAT_TOKEN = "CHAT=";   // 채팅 재생 시작점 접두사
+    static final String AUTH_TOKEN = "AUTH=";   // 관리자 인증 토큰 접두사
+
+    final String seatNumber;
+    final int binaryVersion; // 0이면 텍스트 프로토콜
+    final long stateVersion; // 마지막으로 본 상태 버전 (-1이면 구독하지 않음)
+    final long lastChatId;   // 마지막으로 본 채팅 번호 (0: 처음 접속, -1: 채팅 번호를 쓰지 않음. 둘 다 최근 채팅 몇 개만)
+    final String authToken;  // 관리자 인증 토큰 (없으면 null)
+
+    private Handshake(String seatNumber, int binaryVersion, long stateVersion, long lastChatId, String authToken) {
+        this.seatNumber = seatNumber;
+        this.binaryVersion = binaryVersion;
+        this.stateVersion = stateVersion;
+        this.lastChatId = lastChatId;
+        this.authToken = authToken;
+    }
+
+    static Handshake parse(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        int binaryVersion = 0;
+        long stateVersion = -1;
+        long lastChatId = -1;
+        String authToken = null;
+        for (int i = 1; i < tokens.length; i++) {
+            if (tokens[i].startsWith(BINARY_TOKEN)) {
+                try {
+                    binaryVersion = Integer.parseInt(tokens[i].substring(BINARY_TOKEN.length()));
+                } catch (NumberFormatException e) {
+                    binaryVersion = 0; // 알 수 없는 버전은 텍스트로 처리
+                }
+            } else if (tokens[i].startsWith(STATE_TOKEN)) {
+                try {
+                    stateVersion = Math.max(0, Long.parseLong(tokens[i].substring(STATE_TOKEN.length())));
+                } catch (NumberFormatException e) {
+                    stateVersion = 0; // 알 수 없는 버전은 전체 상태부터
+                }
+            } else if (tokens[i].startsWith(CHAT_TOKEN)) {
+                try {
+                    lastChatId = Math.max(0, Long.parseLong(tokens[i].substring(CHAT_TOKEN.length())));
+                } catch (NumberFormatException e) {
+                    lastChatId = -1; // 알 수 없는 번호는 최근 채팅만
+                }
+            } else if (tokens[i].startsWith(AUTH_TOKEN)) {
+                authToken = tokens[i].substring(AUTH_TOKEN.length());
+            }
+        }
+        return new Handshake(tokens[0], binaryVersion, stateVersion, lastChatId, authToken);
+    }
+
+    // 서버가 지원하는 버전과 협상한 결과 (0이면 텍스트 유지)
+    int negotiatedBinaryVersion() {
+        return Math.max(0, Math.min(binaryVersion, BinaryProtocol.VERSION));
+    }
+}
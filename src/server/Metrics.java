@@ -0,0 +1,280 @@
+package server;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// 서버 실행 지표: 카운터/게이지/히스토그램을 모아 Prometheus 텍스트 형식으로 내보냄
+// 기록(inc, record)은 LongAdder만 갱신하므로 할당이 없고, 게이지는 조회 시점에만 계산
+//   -Daircon.metrics.port=9400 (localhost에서만 접속 가능, 0이면 끔) → http://localhost:9400/metrics
+//   관리자 연결에서는 "메트릭 요청" 명령으로도 조회
+final class Metrics {
+    private static final Map<String, Family> families = new LinkedHashMap<>(); // 이름 → 지표 (등록 순서대로 출력)
+
+    // ====== 수신 메시지 (종류별) ======
+    static final Counter INBOUND_CHAT = counter("aircon_inbound_messages_total", "type=\"chat\"", "수신한 명령 수 (종류별)");
+    static final Counter INBOUND_TEMPERATURE = counter("aircon_inbound_messages_total", "type=\"temperature\"", null);
+    static final Counter INBOUND_VOTE = counter("aircon_inbound_messages_total", "type=\"vote\"", null);
+    static final Counter INBOUND_MODE = counter("aircon_inbound_messages_total", "type=\"mode\"", null);
+    static final Counter INBOUND_WIND = counter("aircon_inbound_messages_total", "type=\"wind\"", null);
+    static final Counter INBOUND_NOTICE = counter("aircon_inbound_messages_total", "type=\"notice\"", null);
+    static final Counter INBOUND_ADMIN_CALL = counter("aircon_inbound_messages_total", "type=\"admin_call\"", null);
+    static final Counter INBOUND_CHAT_HISTORY = counter("aircon_inbound_messages_total", "type=\"chat_history\"", null);
+    static final Counter INBOUND_STATE = counter("aircon_inbound_messages_total", "type=\"state\"", null);
+    static final Counter INBOUND_METRICS = counter("aircon_inbound_messages_total", "type=\"metrics\"", null);
+    static final Counter INBOUND_ADMIN_CONTROL = counter("aircon_inbound_messages_total", "type=\"admin_control\"", null);
+    static final Counter INBOUND_MALFORMED = counter("aircon_inbound_messages_total", "type=\"malformed\"", null);
+
+    // ====== 브로드캐스트 ======
+    static final Histogram BROADCAST_NANOS = histogram("aircon_broadcast_seconds",
+            "브로드캐스트 한 건을 모든 수신자 대기열에 넣기까지 걸린 시간",
+            1_000_000_000, 1_000, 5_000, 10_000, 50_000, 100_000, 500_000, 1_000_000, 5_000_000, 10_000_000, 50_000_000);
+
+    // ====== 이벤트 기록 ======
+    static final Counter LOG_WRITTEN = counter("aircon_log_written_total", "", "기록한 이벤트 수");
+    static final Counter LOG_DROPPED = counter("aircon_log_dropped_total", "", "기록 버퍼가 가득 차 버린 이벤트 수");
+
+    // ====== 채팅 재생 ======
+    static final Counter CHAT_REPLAYS = counter("aircon_chat_replays_total", "", "접속할 때 최근 채팅을 다시 보낸 횟수");
+    static final Counter CHAT_REPLAYED = counter("aircon_chat_replayed_messages_total", "", "접속할 때 다시 보낸 채팅 수");
+
+    // ====== 클러스터 ======
+    static final Counter CLUSTER_SENT = counter("aircon_cluster_entries_total", "direction=\"sent\"", "노드 간 복제 로그 항목 수 (방향별)");
+    static final Counter CLUSTER_APPLIED = counter("aircon_cluster_entries_total", "direction=\"applied\"", null);
+    static final Counter CLUSTER_SNAPSHOTS = counter("aircon_cluster_snapshots_total", "", "다른 노드에 전체 상태를 보낸 횟수");
+    static final Counter CLUSTER_REDIRECTS = counter("aircon_cluster_redirects_total", "", "다른 노드로 안내한 좌석 수");
+
+    // ====== 평균 모드 ======
+    static final Counter TEMPERATURE_REQUESTS = counter("aircon_temperature_requests_total", "", "평균 모드 온도 요청 수");
+    static final Counter AVERAGES_APPLIED = counter("aircon_average_applied_total", "", "집계 창이 닫혀 평균 온도를 적용한 횟수");
+
+    // ====== 투표 ======
+    static final Counter VOTES_OPENED = counter("aircon_votes_opened_total", "", "열린 투표 수");
+    static final Counter VOTES_APPROVED = counter("aircon_votes_closed_total", "outcome=\"approved\"", "종료된 투표 수 (결과별)");
+    static final Counter VOTES_REJECTED = counter("aircon_votes_closed_total", "outcome=\"rejected\"", null);
+    static final Histogram VOTE_MILLIS = histogram("aircon_vote_duration_seconds",
+            "투표가 열린 뒤 결과가 나오기까지 걸린 시간",
+            1_000, 1_000, 5_000, 10_000, 20_000, 30_000, 31_000, 60_000);
+
+    static {
+        counterFrom("aircon_fanout_encodings_total", "브로드캐스트 메시지 인코딩(버퍼 할당) 수", FanoutStats::encodings);
+        counterFrom("aircon_fanout_encoded_bytes_total", "인코딩하며 복사한 바이트 수", FanoutStats::encodedBytes);
+        counterFrom("aircon_fanout_recipients_total", "브로드캐스트 누적 수신자 수", FanoutStats::recipients);
+        gauge("aircon_votes_open", "", "진행 중인 투표 수", VoteManager::openSessions);
+        if (Cluster.ENABLED) {
+            gauge("aircon_cluster_nodes_up", "", "구역을 맡을 수 있는 노드 수 (자신 포함)", Cluster::nodesUp);
+            gauge("aircon_cluster_zones_owned", "", "이 노드가 맡은 구역 수", Cluster::zonesOwned);
+        }
+        for (Zone zone : ZoneManager.all()) {
+            gauge("aircon_window_requests", "zone=\"" + zone.getName() + "\"", "구역별 집계 창에 모인 온도 요청 수",
+                    zone.window::size);
+        }
+    }
+
+    private Metrics() {
+    }
+
+    // 좌석별 한도 초과로 버린 명령 수 (SeatRateLimiter의 종류마다 하나)
+    static Counter rateLimited(String type) {
+        return counter("aircon_rate_limited_total", "type=\"" + type + "\"", "좌석별 한도를 넘어 버린 명령 수 (종류별)");
+    }
+
+    // 접속 목록 관련 게이지 (서버 시작 시 한 번)
+    static void bind(ClientRegistry clients) {
+        gauge("aircon_connected_seats", "", "접속 중인 연결 수 (관리자 포함)", clients::size);
+        gauge("aircon_outbound_queue_depth", "stat=\"sum\"", "연결별 송신 대기열에 쌓인 메시지 수", () -> {
+            long sum = 0;
+            for (ClientHandler client : clients.all()) {
+                sum += client.queuedMessages();
+            }
+            return sum;
+        });
+        gauge("aircon_outbound_queue_depth", "stat=\"max\"", null, () -> {
+            long max = 0;
+            for (ClientHandler client : clients.all()) {
+                max = Math.max(max, client.queuedMessages());
+            }
+            return max;
+        });
+    }
+
+    // 로컬 HTTP 수집 주소 시작 (실패해도 서버는 계속 동작)
+    static void startHttp() {
+        int port = Integer.getInteger("aircon.metrics.port", 9400);
+        if (port <= 0) {
+            return;
+        }
+        try {
+            HttpServer http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            http.createContext("/metrics", exchange -> {
+                byte[] body = render().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            http.start();
+            System.out.println("[INFO] 메트릭 수집 주소: http://localhost:" + port + "/metrics");
+        } catch (IOException e) {
+            System.err.println("[ERROR] 메트릭 HTTP 서버 시작 실패 (" + port + "): " + e.getMessage());
+        }
+    }
+
+    // Prometheus 텍스트 형식
+    static synchronized String render() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+            for (Sample sample : family.samples) {
+                sample.write(name, out);
+            }
+        }
+        return out.toString();
+    }
+
+    // ====== 등록 ======
+    private static synchronized Family family(String name, String type, String help) {
+        Family family = families.get(name);
+        if (family == null) {
+            family = new Family(type, help == null ? name : help);
+            families.put(name, family);
+        }
+        return family;
+    }
+
+    private static synchronized Counter counter(String name, String labels, String help) {
+        Counter counter = new Counter(labels);
+        family(name, "counter", help).samples.add(counter);
+        return counter;
+    }
+
+    private static synchronized void counterFrom(String name, String help, LongSupplier value) {
+        family(name, "counter", help).samples.add(new Polled("", value));
+    }
+
+    static synchronized void gauge(String name, String labels, String help, LongSupplier value) {
+        family(name, "gauge", help).samples.add(new Polled(labels, value));
+    }
+
+    // bounds: 기록 단위의 구간 상한, unitsPerSecond: 기록 단위를 초로 바꿀 때 나누는 값 (예: 나노초 1_000_000_000)
+    private static Histogram histogram(String name, String help, long unitsPerSecond, long... bounds) {
+        Histogram histogram = new Histogram(unitsPerSecond, bounds);
+        family(name, "histogram", help).samples.add(histogram);
+        return histogram;
+    }
+
+    private static final class Family {
+        final String type;
+        final String help;
+        final List<Sample> samples = new ArrayList<>();
+
+        Family(String type, String help) {
+            this.type = type;
+            this.help = help;
+        }
+    }
+
+    private interface Sample {
+        void write(String name, StringBuilder out);
+    }
+
+    private static void line(StringBuilder out, String name, String labels, String value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    static final class Counter implements Sample {
+        private final String labels;
+        private final LongAdder value = new LongAdder();
+
+        private Counter(String labels) {
+            this.labels = labels;
+        }
+
+        void inc() {
+            value.increment();
+        }
+
+        void add(long amount) {
+            value.add(amount);
+        }
+
+        long get() {
+            return value.sum();
+        }
+
+        @Override
+        public void write(String name, StringBuilder out) {
+            line(out, name, labels, Long.toString(value.sum()));
+        }
+    }
+
+    private static final class Polled implements Sample {
+        private final String labels;
+        private final LongSupplier value;
+
+        Polled(String labels, LongSupplier value) {
+            this.labels = labels;
+            this.value = value;
+        }
+
+        @Override
+        public void write(String name, StringBuilder out) {
+            line(out, name, labels, Long.toString(value.getAsLong()));
+        }
+    }
+
+    static final class Histogram implements Sample {
+        private final double unitsPerSecond;
+        private final long[] bounds;
+        private final LongAdder[] buckets; // 마지막 칸은 +Inf
+        private final LongAdder sum = new LongAdder();
+
+        private Histogram(long unitsPerSecond, long[] bounds) {
+            this.unitsPerSecond = unitsPerSecond;
+            this.bounds = bounds;
+            this.buckets = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long value) {
+            int i = 0;
+            while (i < bounds.length && value > bounds[i]) {
+                i++;
+            }
+            buckets[i].increment();
+            sum.add(value);
+        }
+
+        @Override
+        public void write(String name, StringBuilder out) {
+            long cumulative = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                cumulative += buckets[i].sum();
+                String le = i < bounds.length ? Double.toString(bounds[i] / unitsPerSecond) : "+Inf";
+                line(out, name + "_bucket", "le=\"" + le + "\"", Long.toString(cumulative));
+            }
+            line(out, name + "_sum", "", Double.toString(sum.sum() / unitsPerSecond));
+            line(out, name + "_count", "", Long.toString(cumulative));
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 셀렉터 기반 서버: 접속 수와 관계없이 (accept 스레드 1개 + 이벤트 루프 N개)로 동작
+class NioServer {
+    private static final int MAX_LINE_BYTES = 64 * 1024; // 한 줄 최대 길이 (초과 시 연결 종료)
+    private static final long HANDSHAKE_CHECK_MILLIS = 500; // 핸드셰이크 마감 확인 간격
+
+    private final int port;
+    private final ClientRegistry clients;
+    private final EventLoop[] loops;
+    private int nextLoop = 0;
+
+    NioServer(int port, ClientRegistry clients, int loopCount) throws IOException {
+        this.port = port;
+        this.clients = clients;
+        this.loops = new EventLoop[loopCount];
+        for (int i = 0; i < loopCount; i++) {
+            loops[i] = new EventLoop(i);
+        }
+    }
+
+    // 이벤트 루프를 띄우고 현재 스레드에서 연결 수락 (블로킹 accept 후 루프에 라운드로빈 배정)
+    void start() throws IOException {
+        for (EventLoop loop : loops) {
+            Thread thread = new Thread(loop, "nio-loop-" + loop.index);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.bind(new InetSocketAddress(port), Admission.BACKLOG); // 재접속이 몰릴 때 SYN이 버려지지 않도록 넉넉한 backlog
+            System.out.println("서버가 시작되었습니다... (nio, 이벤트 루프 " + loops.length + "개)");
+            Admission admission = new Admission();
+
+            while (true) {
+                Admission.Ticket ticket = admission.awaitSlot(); // 핸드셰이크 대기 자리와 accept 속도 한도 확인
+                SocketChannel channel;
+                try {
+                    channel = serverChannel.accept();
+                } catch (IOException e) {
+                    ticket.release();
+                    throw e;
+                }
+                try {
+                    channel.configureBlocking(false);
+                    channel.socket().setTcpNoDelay(true);
+                    loops[nextLoop].register(channel, ticket);
+                    nextLoop = (nextLoop + 1) % loops.length;
+                } catch (IOException e) {
+                    System.err.println("[ERROR] 클라이언트 처리 중 오류 발생: " + e.getMessage());
+                    ticket.release();
+                    channel.close();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 셀렉터 하나를 소유하는 단일 스레드 루프. 다른 스레드의 요청은 작업 큐를 통해 루프 스레드에서 실행
+    private final class EventLoop implements Runnable {
+        private final int index;
+        private final Selector selector;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final ArrayDeque<NioConnection> handshaking = new ArrayDeque<>(); // 자리 번호 대기 중 (등록 순 = 마감 순)
+
+        EventLoop(int index) throws IOException {
+            this.index = index;
+            this.selector = Selector.open();
+        }
+
+        void register(SocketChannel channel, Admission.Ticket ticket) {
+            execute(() -> {
+                try {
+                    SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                    NioConnection connection = new NioConnection(channel, key, this, ticket);
+                    key.attach(connection);
+                    handshaking.add(connection);
+                } catch (IOException e) {
+                    System.err.println("[ERROR] 채널 등록 실패: " + e.getMessage());
+                    ticket.release();
+                }
+            });
+        }
+
+        // 마감 시각까지 자리 번호를 보내지 않은 연결 종료 (루프 스레드)
+        private void expireHandshakes() {
+            long now = System.nanoTime();
+            NioConnection head;
+            while ((head = handshaking.peek()) != null) {
+                if (head.handshakeDone()) {
+                    handshaking.poll();
+                } else if (now - head.handshakeDeadline >= 0) {
+                    handshaking.poll();
+                    EventLog.record(EventLog.Type.HANDSHAKE_TIMEOUT, null);
+                    head.closeQuietly();
+                } else {
+                    return;
+                }
+            }
+        }
+
+        void execute(Runnable task) {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    selector.select(handshaking.isEmpty() ? 0 : HANDSHAKE_CHECK_MILLIS);
+                    expireHandshakes();
+                    Runnable task;
+                    while ((task = tasks.poll()) != null) {
+                        task.run();
+                    }
+
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        NioConnection connection = (NioConnection) key.attachment();
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isReadable()) {
+                            connection.onReadable();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    }
+                } catch (Exception e) {
+                    // 한 연결의 오류가 루프 전체를 멈추지 않도록 기록만 하고 계속 진행
+                    System.err.println("[ERROR] 이벤트 루프 오류: " + e);
+                }
+            }
+        }
+    }
+
+    // 채널 하나의 상태: 줄 단위 디코딩 버퍼와 송신 대기 큐
+    private final class NioConnection implements Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final EventLoop loop;
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(8 * 1024);
+        private byte[] lineBytes = new byte[256];
+        private int lineLength = 0;
+        private final OutboundQueue<ByteBuffer> outbound = OutboundQueue.nonBlocking(); // send는 대개 루프 스레드에서 호출되므로 기다리지 않음
+        private final GatheringBatch batch = new GatheringBatch(); // 전송 중인 묶음 (루프 스레드 전용, 대기열 초과 시 버려지지 않도록 분리)
+        private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private ClientHandler handler; // 자리 번호 수신 전까지는 null
+        private BinaryProtocol.Decoder decoder; // 바이너리 프로토콜로 협상된 경우에만 생성
+        private volatile boolean binaryFrames = false; // 송신 인코딩 방식 (다른 스레드의 send에서도 읽음)
+        private final Admission.Ticket admission;      // 핸드셰이크가 끝나거나 닫히면 반납
+        final long handshakeDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Admission.HANDSHAKE_MILLIS);
+
+        NioConnection(SocketChannel channel, SelectionKey key, EventLoop loop, Admission.Ticket admission) {
+            this.channel = channel;
+            this.key = key;
+            this.loop = loop;
+            this.admission = admission;
+        }
+
+        boolean handshakeDone() {
+            return handler != null || closed.get();
+        }
+
+        // 루프 스레드에서만 호출
+        void onReadable() {
+            int read;
+            try {
+                read = channel.read(readBuffer);
+            } catch (IOException e) {
+                read = -1;
+            }
+            if (read < 0) {
+                onRemoteClosed();
+                return;
+            }
+
+            readBuffer.flip();
+            if (decoder != null) {
+                decoder.decode(readBuffer, handler);
+            }
+            while (readBuffer.hasRemaining()) {
+                byte b = readBuffer.get();
+                if (b == '\n') {
+                    int length = lineLength;
+                    if (length > 0 && lineBytes[length - 1] == '\r') {
+                        length--;
+                    }
+                    String line = new String(lineBytes, 0, length, StandardCharsets.UTF_8);
+                    lineLength = 0;
+                    onLine(line);
+                    if (closed.get()) {
+                        return;
+                    }
+                    if (decoder != null) {
+                        decoder.decode(readBuffer, handler); // 핸드셰이크 직후부터 남은 바이트는 프레임
+                    }
+                } else {
+                    if (lineLength == lineBytes.length) {
+                        if (lineBytes.length >= MAX_LINE_BYTES) {
+                            System.err.println("[ERROR] 너무 긴 메시지로 연결을 종료합니다.");
+                            onRemoteClosed();
+                            return;
+                        }
+                        lineBytes = Arrays.copyOf(lineBytes, Math.min(lineBytes.length * 2, MAX_LINE_BYTES));
+                    }
+                    lineBytes[lineLength++] = b;
+                }
+            }
+            readBuffer.clear();
+        }
+
+        private void onLine(String line) {
+            if (handler == null) {
+                // 첫 줄은 자리 번호 (핸드셰이크)
+                handler = new ClientHandler(this, clients);
+                boolean started = handler.start(line);
+                admission.release();
+                if (started && handler.isBinary()) {
+                    decoder = new BinaryProtocol.Decoder();
+                }
+            } else {
+                handler.handleMessage(line);
+            }
+        }
+
+        private void onRemoteClosed() {
+            if (handler != null) {
+                handler.disconnectClient();
+            } else {
+                closeQuietly();
+            }
+        }
+
+        // 어느 스레드에서나 호출 가능: 큐에 넣고 루프 스레드에 flush 예약
+        @Override
+        public boolean send(OutboundMessage message) {
+            if (closed.get()) {
+                return true;
+            }
+            if (!outbound.offer(message.buffer(binaryFrames))) {
+                return false;
+            }
+            if (flushScheduled.compareAndSet(false, true)) {
+                loop.execute(this::flush);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean sendAll(List<OutboundMessage> messages) {
+            if (closed.get() || messages.isEmpty()) {
+                return true;
+            }
+            if (!outbound.offer(OutboundMessage.concat(messages, binaryFrames))) {
+                return false;
+            }
+            if (flushScheduled.compareAndSet(false, true)) {
+                loop.execute(this::flush);
+            }
+            return true;
+        }
+
+        @Override
+        public void enableBinaryFrames() {
+            binaryFrames = true;
+        }
+
+        @Override
+        public int queuedMessages() {
+            return outbound.size();
+        }
+
+        // 루프 스레드에서만 호출. 소켓 버퍼가 가득 차면 OP_WRITE를 걸고 다음 이벤트에서 이어서 전송
+        void flush() {
+            if (closed.get()) {
+                return;
+            }
+            try {
+                while (batch.fill(outbound)) {
+                    if (!batch.writeTo(channel)) {
+                        key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                }
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                flushScheduled.set(false);
+                // flag를 내리는 사이에 들어온 메시지가 있으면 다시 예약
+                if (!outbound.isEmpty() && flushScheduled.compareAndSet(false, true)) {
+                    loop.execute(this::flush);
+                }
+            } catch (IOException | CancelledKeyException e) {
+                onRemoteClosed();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                loop.execute(() -> {
+                    writePendingOnce();
+                    closeQuietly();
+                });
+            }
+        }
+
+        // 종료 직전 남은 메시지를 한 번만 시도 (소켓 버퍼가 차 있으면 포기)
+        private void writePendingOnce() {
+            try {
+                while (batch.fill(outbound)) {
+                    if (!batch.writeTo(channel)) {
+                        return;
+                    }
+                }
+            } catch (IOException ignored) {
+            }
+        }
+
+        private void closeQuietly() {
+            closed.set(true);
+            admission.release();
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            outbound.clear();
+            batch.clear();
+            if (outbound.droppedCount() > 0) {
+                EventLog.record(EventLog.Type.OUTBOUND_DROPPED, handler == null ? null : handler.getClientId(), outbound.droppedCount());
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// 송신 메시지 한 건. 텍스트 줄/바이너리 프레임 형식별로 처음 필요할 때 한 번만 인코딩하고
+// 모든 수신자가 같은 읽기 전용 direct 버퍼를 duplicate()로 공유 (수신자마다 내용 복사 없음)
+// direct 버퍼라서 채널 쓰기 때 JDK가 임시 direct 버퍼로 다시 복사하지도 않음
+final class OutboundMessage {
+    private final String text;
+    private ByteBuffer line;  // "text\n"
+    private ByteBuffer frame; // [길이][OP_TEXT][text]
+
+    OutboundMessage(String text) {
+        this.text = text;
+    }
+
+    String text() {
+        return text;
+    }
+
+    // 수신자별 위치를 가진 뷰 (내용은 공유)
+    ByteBuffer buffer(boolean binaryFrames) {
+        return binaryFrames ? frame().duplicate() : line().duplicate();
+    }
+
+    // 여러 메시지를 버퍼 하나로 이어 붙임 (각 메시지의 인코딩은 그대로 재사용)
+    static ByteBuffer concat(List<OutboundMessage> messages, boolean binaryFrames) {
+        int length = 0;
+        for (OutboundMessage message : messages) {
+            length += message.buffer(binaryFrames).remaining();
+        }
+        ByteBuffer joined = ByteBuffer.allocateDirect(length);
+        for (OutboundMessage message : messages) {
+            joined.put(message.buffer(binaryFrames));
+        }
+        return joined.flip().asReadOnlyBuffer();
+    }
+
+    private synchronized ByteBuffer line() {
+        if (line == null) {
+            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(utf8.length + 1);
+            buffer.put(utf8).put((byte) '\n').flip();
+            line = buffer.asReadOnlyBuffer();
+            FanoutStats.recordEncoding(buffer.capacity());
+        }
+        return line;
+    }
+
+    private synchronized ByteBuffer frame() {
+        if (frame == null) {
+            byte[] encoded = BinaryProtocol.encodeText(BinaryProtocol.OP_TEXT, text);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(encoded.length);
+            buffer.put(encoded).flip();
+            frame = buffer.asReadOnlyBuffer();
+            FanoutStats.recordEncoding(buffer.capacity());
+        }
+        return frame;
+    }
+}
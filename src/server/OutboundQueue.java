@@ -0,0 +1,90 @@
+package server;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 연결별 송신 대기열: 브로드캐스트는 여기에 넣기만 하고, 실제 소켓 쓰기는 연결 전용 writer가 담당
+// 느린 수신자 한 명이 가득 차도 다른 연결의 전송에는 영향을 주지 않음
+final class OutboundQueue<T> {
+    // 대기열이 가득 찼을 때의 처리 방식
+    enum OverflowPolicy {
+        DROP_OLDEST, // 가장 오래된 메시지를 버리고 새 메시지 추가
+        DISCONNECT,  // 느린 연결로 보고 즉시 연결 종료
+        BLOCK        // 정해진 시간만큼 기다린 뒤에도 자리가 없으면 연결 종료
+    }
+
+    // -Daircon.outbound.capacity / policy (drop_oldest, disconnect, block) / blockMillis 로 설정
+    static final int DEFAULT_CAPACITY = Integer.getInteger("aircon.outbound.capacity", 1024);
+    static final OverflowPolicy DEFAULT_POLICY =
+            OverflowPolicy.valueOf(System.getProperty("aircon.outbound.policy", "drop_oldest").toUpperCase());
+    static final long DEFAULT_BLOCK_MILLIS = Long.getLong("aircon.outbound.blockMillis", 100);
+
+    private final ArrayBlockingQueue<T> queue;
+    private final OverflowPolicy policy;
+    private final long blockMillis;
+    private final AtomicLong dropped = new AtomicLong(); // DROP_OLDEST로 버린 메시지 수
+
+    OutboundQueue() {
+        this(DEFAULT_CAPACITY, DEFAULT_POLICY, DEFAULT_BLOCK_MILLIS);
+    }
+
+    OutboundQueue(int capacity, OverflowPolicy policy, long blockMillis) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.policy = policy;
+        this.blockMillis = blockMillis;
+    }
+
+    // 이벤트 루프처럼 멈추면 안 되는 스레드가 채우는 대기열: BLOCK 정책은 기다리지 않고 DISCONNECT로 처리
+    static <T> OutboundQueue<T> nonBlocking() {
+        OverflowPolicy policy = DEFAULT_POLICY == OverflowPolicy.BLOCK ? OverflowPolicy.DISCONNECT : DEFAULT_POLICY;
+        return new OutboundQueue<>(DEFAULT_CAPACITY, policy, 0);
+    }
+
+    // 메시지 추가. false를 반환하면 호출자가 연결을 끊어야 함
+    boolean offer(T item) {
+        if (queue.offer(item)) {
+            return true;
+        }
+        if (policy == OverflowPolicy.DROP_OLDEST) {
+            do {
+                if (queue.poll() != null) {
+                    dropped.incrementAndGet();
+                }
+            } while (!queue.offer(item));
+            return true;
+        }
+        if (policy == OverflowPolicy.BLOCK) {
+            try {
+                return queue.offer(item, blockMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return false;
+    }
+
+    T poll() {
+        return queue.poll();
+    }
+
+    T take() throws InterruptedException {
+        return queue.take();
+    }
+
+    boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    long droppedCount() {
+        return dropped.get();
+    }
+
+    void clear() {
+        queue.clear();
+    }
+}
@@ -0,0 +1,138 @@
+package server;
+
+import java.util.Arrays;
+
+// 자리별 희망 온도의 히스토그램 (18~26°C, 1도 단위 9칸). 요청 추가/제거는 칸 하나만 고치고 (O(1), 할당 없음)
+// 평균/중앙값/절사 평균/쾌적 설정값은 9칸을 한 번 훑어 계산하므로 인원과 관계없이 일정한 시간
+// 범위 밖 요청은 가장 가까운 끝 칸에 셈 (클라이언트 화면도 18~26°C만 보냄)
+final class PreferenceHistogram {
+    static final int MIN = 18;
+    static final int MAX = 26;
+
+    // -Daircon.policy.trimPercent (절사 평균에서 양쪽 끝에서 각각 버리는 비율, 기본 10)
+    // -Daircon.policy.coldWeight / warmWeight (쾌적 모드에서 희망보다 1도 춥거나 더울 때의 불편 크기, 기본 2 / 1)
+    static final double TRIM_FRACTION = Integer.getInteger("aircon.policy.trimPercent", 10) / 100.0;
+    static final double COLD_WEIGHT = Double.parseDouble(System.getProperty("aircon.policy.coldWeight", "2"));
+    static final double WARM_WEIGHT = Double.parseDouble(System.getProperty("aircon.policy.warmWeight", "1"));
+
+    // 집계 방식 (구역의 온도 결정 방식 중 다수결을 제외한 것)
+    enum Policy {
+        AVERAGE("average", "평균"),   // 반올림한 산술 평균
+        MEDIAN("median", "중앙값"),   // 중앙값 (짝수 명이면 낮은 쪽): 한두 명의 극단적인 요청에 끌려가지 않음
+        TRIMMED("trimmed", "절사평균"), // 양 끝 trimPercent%씩 버린 평균
+        COMFORT("comfort", "쾌적");   // 모두의 불편(희망과의 차이 × 춥고 더운 정도별 무게) 합이 가장 작은 온도
+
+        final String key;
+        final String label;
+
+        Policy(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+
+        // 구역의 결정 방식 값 → 집계 방식 (다수결 등 해당 없으면 null)
+        static Policy of(String choice) {
+            for (Policy policy : values()) {
+                if (policy.key.equals(choice)) {
+                    return policy;
+                }
+            }
+            return null;
+        }
+
+        // 관리자 화면의 한글 이름 → 결정 방식 값 (해당 없으면 null)
+        static String keyOfLabel(String label) {
+            for (Policy policy : values()) {
+                if (policy.label.equals(label)) {
+                    return policy.key;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final int[] counts = new int[MAX - MIN + 1];
+    private int total = 0;
+    private long sum = 0;
+
+    void add(int temperature) {
+        int clamped = clamp(temperature);
+        counts[clamped - MIN]++;
+        total++;
+        sum += clamped;
+    }
+
+    void remove(int temperature) {
+        int clamped = clamp(temperature);
+        counts[clamped - MIN]--;
+        total--;
+        sum -= clamped;
+    }
+
+    void clear() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        sum = 0;
+    }
+
+    int size() {
+        return total;
+    }
+
+    // 집계 방식별 설정 온도 (요청이 없으면 호출하지 않음)
+    int setpoint(Policy policy) {
+        switch (policy) {
+            case MEDIAN:
+                return quantile(0.5);
+            case TRIMMED:
+                return trimmedMean(TRIM_FRACTION);
+            case COMFORT:
+                // 불편 합 Σ(춥게: cold×(희망-설정), 덥게: warm×(설정-희망))은 cold/(cold+warm) 분위수에서 가장 작음
+                return quantile(COLD_WEIGHT / (COLD_WEIGHT + WARM_WEIGHT));
+            default:
+                return mean();
+        }
+    }
+
+    int mean() {
+        return (int) Math.round((double) sum / total);
+    }
+
+    // 낮은 쪽부터 센 누적 비율이 q 이상이 되는 첫 온도
+    int quantile(double q) {
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return MIN + i;
+            }
+        }
+        return MAX;
+    }
+
+    // 양쪽 끝에서 각각 fraction 비율(내림)만큼 버린 나머지의 반올림 평균
+    int trimmedMean(double fraction) {
+        int drop = (int) Math.floor(total * fraction);
+        if (total - 2 * drop <= 0) {
+            return quantile(0.5);
+        }
+        int skipLow = drop;
+        int keep = total - 2 * drop;
+        long keptSum = 0;
+        int kept = 0;
+        for (int i = 0; i < counts.length && kept < keep; i++) {
+            int available = counts[i];
+            int skipped = Math.min(skipLow, available);
+            skipLow -= skipped;
+            int used = Math.min(available - skipped, keep - kept);
+            keptSum += (long) used * (MIN + i);
+            kept += used;
+        }
+        return (int) Math.round((double) keptSum / kept);
+    }
+
+    private static int clamp(int temperature) {
+        return Math.max(MIN, Math.min(MAX, temperature));
+    }
+}
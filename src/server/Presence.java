@@ -0,0 +1,93 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 구역별 입장/퇴장 알림. 조용하던 구역의 첫 알림은 바로 보내고, 이어서 몰려오는 입장/퇴장은
+// 일정 시간 모았다가 한 줄로 요약해 보냄 (좌석 N개가 한꺼번에 재접속해도 O(N²)이 아닌 창 개수만큼의 브로드캐스트)
+//   -Daircon.presence.batchMillis (기본 250), -Daircon.presence.maxNames (요약에 적는 최대 자리 수, 기본 20)
+final class Presence {
+    static final long BATCH_MILLIS = Long.getLong("aircon.presence.batchMillis", 250);
+    static final int MAX_NAMES = Integer.getInteger("aircon.presence.maxNames", 20);
+    static final String JOINED = "고객님이 입장하셨습니다.";
+    static final String LEFT = "고객님이 퇴장하셨습니다.";
+
+    private final Zone zone;
+    private final List<String> joined = new ArrayList<>();
+    private final List<String> left = new ArrayList<>();
+    private ClientRegistry clients;
+    private boolean flushScheduled = false;
+    private long quietAfter = 0; // 이 시각(ms) 이후의 알림은 바로 전송
+
+    Presence(Zone zone) {
+        this.zone = zone;
+    }
+
+    void joined(String seatId, ClientRegistry clients) {
+        AdminFeed.record(AdminFeed.Kind.JOIN);
+        add(joined, seatId, true, clients);
+    }
+
+    void left(String seatId, ClientRegistry clients) {
+        AdminFeed.record(AdminFeed.Kind.LEAVE);
+        add(left, seatId, false, clients);
+    }
+
+    private synchronized void add(List<String> pending, String seatId, boolean joinedEvent, ClientRegistry clients) {
+        this.clients = clients;
+        long now = System.currentTimeMillis();
+        if (!flushScheduled && now >= quietAfter) {
+            quietAfter = now + BATCH_MILLIS;
+            announce(seatId + "번 " + (joinedEvent ? JOINED : LEFT));  // 한 건이면 기존 문구 그대로
+            return;
+        }
+        pending.add(seatId);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            zone.shard().schedule(this::flush, Math.max(0, quietAfter - now), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // 모아 둔 알림 전송 (구역 샤드). 잠금 안에서 보내 바로 다음 알림과 순서가 바뀌지 않게 함
+    private synchronized void flush() {
+        flushScheduled = false;
+        quietAfter = System.currentTimeMillis() + BATCH_MILLIS;
+        if (!left.isEmpty()) {
+            announce(summary(left, LEFT));
+            left.clear();
+        }
+        if (!joined.isEmpty()) {
+            announce(summary(joined, JOINED));
+            joined.clear();
+        }
+    }
+
+    // "3번, 4번, 5번 고객님이 입장하셨습니다." / "3번, 4번 외 480명의 고객님이 입장하셨습니다."
+    static String summary(List<String> seats, String suffix) {
+        StringBuilder message = new StringBuilder();
+        int shown = Math.min(seats.size(), MAX_NAMES);
+        for (int i = 0; i < shown; i++) {
+            if (i > 0) {
+                message.append(", ");
+            }
+            message.append(seats.get(i)).append('번');
+        }
+        if (seats.size() > shown) {
+            message.append(" 외 ").append(seats.size() - shown).append("명의");
+        }
+        return message.append(' ').append(suffix).toString();
+    }
+
+    // 구역 좌석에게 전송 (관리자에게는 AdminFeed가 입장/퇴장 수를 요약해서 보냄)
+    private void announce(String message) {
+        long start = System.nanoTime();
+        OutboundMessage encoded = new OutboundMessage(message);
+        ClientHandler[] zoneSeats = clients.seatsIn(zone);
+        for (ClientHandler client : zoneSeats) {
+            client.sendMessage(encoded);
+        }
+        FanoutStats.recordBroadcast(zoneSeats.length);
+        Metrics.BROADCAST_NANOS.record(System.nanoTime() - start);
+    }
+}
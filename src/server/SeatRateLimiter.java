@@ -0,0 +1,69 @@
+package server;
+
+import java.util.concurrent.TimeUnit;
+
+// 좌석 하나의 명령 종류별 토큰 버킷. 명령을 처리하기 전에 확인하고, 한도를 넘은 명령은 버림
+// 한 좌석이 아무리 빨리 보내도 그 좌석 때문에 생기는 브로드캐스트 양은 (초당 허용 수 × 구역 인원)을 넘지 않음
+// 연결을 읽는 스레드 하나에서만 호출되므로 잠금이 없고, 한도 안에서는 시간 조회와 덧셈 몇 번이 전부
+//   -Daircon.rate.<종류>PerSecond / <종류>Burst  (종류: chat, temperature, vote, control, sync) 0이면 제한 없음
+final class SeatRateLimiter {
+    enum Kind {
+        CHAT("chat", 2, 5),               // 채팅 (구역 전체에 브로드캐스트)
+        TEMPERATURE("temperature", 2, 5), // 온도 요청 (다수결 모드에서는 투표를 엶)
+        VOTE("vote", 2, 4),               // 찬반 표
+        CONTROL("control", 2, 5),         // 모드/바람 세기 변경, 관리자 호출
+        SYNC("sync", 10, 20);             // 과거 채팅/상태 다시 받기 (화면 동기화용, 요청자에게만 응답)
+
+        final double perSecond;
+        final double burst;
+        final Metrics.Counter dropped;
+
+        Kind(String name, double defaultPerSecond, double defaultBurst) {
+            this.perSecond = Double.parseDouble(System.getProperty("aircon.rate." + name + "PerSecond", String.valueOf(defaultPerSecond)));
+            this.burst = Math.max(1, Double.parseDouble(System.getProperty("aircon.rate." + name + "Burst", String.valueOf(defaultBurst))));
+            this.dropped = Metrics.rateLimited(name);
+        }
+    }
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double[] tokens = new double[Kind.values().length];
+    private final long[] refilledAt = new long[Kind.values().length];
+    private boolean warned = false; // 한도 초과 안내를 이미 보냈는지 (다시 허용될 때까지 한 번만)
+
+    SeatRateLimiter() {
+        long now = System.nanoTime();
+        for (Kind kind : Kind.values()) {
+            tokens[kind.ordinal()] = kind.burst;
+            refilledAt[kind.ordinal()] = now;
+        }
+    }
+
+    // 토큰 하나를 쓸 수 있으면 true. 없으면 종류별 버린 수를 세고 false
+    boolean tryAcquire(Kind kind) {
+        if (kind.perSecond <= 0) {
+            return true;
+        }
+        int i = kind.ordinal();
+        long now = System.nanoTime();
+        double available = Math.min(kind.burst, tokens[i] + (now - refilledAt[i]) * kind.perSecond / NANOS_PER_SECOND);
+        refilledAt[i] = now;
+        if (available >= 1) {
+            tokens[i] = available - 1;
+            warned = false;
+            return true;
+        }
+        tokens[i] = available;
+        kind.dropped.inc();
+        return false;
+    }
+
+    // 한도 초과 안내를 보내야 하면 true (연속으로 버려지는 동안에는 한 번만)
+    boolean shouldWarn() {
+        if (warned) {
+            return false;
+        }
+        warned = true;
+        return true;
+    }
+}
@@ -2,41 +2,63 @@ package server;
 
 import java.io.*;
 import java.net.*;
-import java.util.*;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.*;
 
 public class Server {
-    private static final int PORT = 12345; // 서버가 연결을 수신할 포트 번호
-    private static final List<ClientHandler> clients = Collections.synchronizedList(new ArrayList<>()); // 연결된 클라이언트 리스트
+    private static final int DEFAULT_PORT = 12345; // 서버가 연결을 수신할 기본 포트 번호
+    private static final ClientRegistry clients = new ClientRegistry(); // 연결된 클라이언트 목록
 
+    // 실행 인자 또는 시스템 속성으로 전송 방식과 포트 선택
+    //   모드: "blocking" (기본, 고정 스레드 풀) / "virtual" (연결당 가상 스레드) / "nio" (셀렉터 이벤트 루프)
+    //   예) ServerMain virtual 12345, -Daircon.server.mode=nio -Daircon.server.port=12345
+    //   클러스터 노드는 포트를 생략하면 -Daircon.cluster.nodes 의 자기 항목에 적힌 좌석 포트 사용 (Cluster)
     public static void main(String[] args) {
-        try (ServerSocket serverSocket = new ServerSocket(PORT)) { // 서버 소켓을 생성하여 포트 12345에서 클라이언트 연결 대기
-            System.out.println("서버가 시작되었습니다...");
-            ExecutorService threadPool = Executors.newFixedThreadPool(10); // 10개의 스레드를 동시에 처리할 수 있는 스레드 풀
+        String mode = args.length > 0 ? args[0] : System.getProperty("aircon.server.mode", "blocking");
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : Integer.getInteger("aircon.server.port", Cluster.clientPort(DEFAULT_PORT));
+
+        FanoutStats.startReporting();
+        StateJournal.open(clients); // 이전 실행의 상태 복구 (접속을 받기 전에)
+        ClimateState.bind(clients); // 상태 변경분을 구독 중인 연결에 전송
+        Cluster.start(clients);     // 다른 노드와 연결하고 맡은 구역의 최신 상태를 받을 때까지 대기 (클러스터 설정이 있을 때)
+        ThermalSimulator.start(clients); // 구역별 공기 온도 시뮬레이션
+        AdminFeed.start(clients);        // 관리자 요약 피드
+        Metrics.bind(clients);
+        Metrics.startHttp();
+        if (!AdminCommand.tokenConfigured()) {
+            System.out.println("[WARNING] -Daircon.admin.token 이 없어 관리자 접속을 자리 번호(admin)만으로 허용합니다.");
+        }
+        if (mode.equalsIgnoreCase("nio")) {
+            runNio(port);
+        } else if (mode.equalsIgnoreCase("virtual")) {
+            runBlocking(port, Executors.newVirtualThreadPerTaskExecutor(), "virtual");
+        } else {
+            runBlocking(port, Executors.newFixedThreadPool(10), "blocking"); // 10개의 스레드를 동시에 처리할 수 있는 스레드 풀
+        }
+    }
+
+    // 블로킹 모드: 연결마다 ClientHandler 하나가 executor에서 readLine()으로 대기
+    private static void runBlocking(int port, ExecutorService threadPool, String modeName) {
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) { // 서버 채널을 생성하여 포트에서 클라이언트 연결 대기
+            serverChannel.bind(new InetSocketAddress(port), Admission.BACKLOG); // 재접속이 몰릴 때 SYN이 버려지지 않도록 넉넉한 backlog
+            System.out.println("서버가 시작되었습니다... (" + modeName + ")");
+            Admission admission = new Admission();
 
             while (true) { // 무한 루프, 클라이언트 연결 대기
                 try {
-                    Socket clientSocket = serverSocket.accept(); // 클라이언트의 연결 요청을 받음
-                    BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
-
-                    // 클라이언트 자리 번호 수신
-                    String seatNumber = in.readLine();
-                    System.out.println("[INFO] 자리 번호 수신: " + seatNumber);
-
-                    // 새로운 ClientHandler 객체 생성
-                    ClientHandler clientHandler = new ClientHandler(clientSocket, clients, seatNumber);
-
-                    // 중복 클라이언트 처리: 동일 자리 번호가 있는지 확인하고, 없다면 리스트에 추가
-                    synchronized (clients) {
-                        boolean isDuplicate = clients.stream().anyMatch(client -> client.getClientId().equals(seatNumber));
-                        if (!isDuplicate) {
-                            clients.add(clientHandler); // 중복되지 않으면 추가
-                            System.out.println("[INFO] 클라이언트가 리스트에 추가되었습니다: " + seatNumber);
-                        } else {
-                            System.out.println("[WARNING] 이미 연결된 클라이언트입니다: " + seatNumber); // 중복된 클라이언트
-                        }
+                    Admission.Ticket ticket = admission.awaitSlot(); // 핸드셰이크 대기 자리와 accept 속도 한도 확인
+                    SocketChannel clientChannel;
+                    try {
+                        clientChannel = serverChannel.accept(); // 클라이언트의 연결 요청을 받음 (블로킹 채널)
+                    } catch (IOException e) {
+                        ticket.release();
+                        throw e;
                     }
 
+                    // 새로운 ClientHandler 객체 생성 (자리 번호 수신과 목록 등록은 핸들러 스레드에서 처리)
+                    ClientHandler clientHandler = new ClientHandler(clientChannel, clients, ticket);
+
                     // 클라이언트를 쓰레드 풀에서 실행
                     threadPool.execute(clientHandler);
 
@@ -46,13 +68,36 @@ public class Server {
             }
         } catch (IOException e) {
             System.err.println("[ERROR] 서버 오류: " + e.getMessage()); // 서버 소켓 생성 실패
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
-    // 모든 클라이언트에게 메시지 전송
+    // NIO 모드: 고정된 수의 이벤트 루프 스레드가 모든 연결을 처리
+    private static void runNio(int port) {
+        int loopCount = Integer.getInteger("aircon.nio.threads", Math.max(1, Runtime.getRuntime().availableProcessors()));
+        try {
+            new NioServer(port, clients, loopCount).start();
+        } catch (IOException e) {
+            System.err.println("[ERROR] 서버 오류: " + e.getMessage());
+        }
+    }
+
+    // 모든 클라이언트에게 메시지 전송 (클러스터의 다른 노드에 접속한 클라이언트 포함)
     public static void sendMessageToAllClients(String message) {
-        for (ClientHandler writer : clients) {
-            writer.sendMessage(message);  // 모든 클라이언트에게 상태 변경 메시지 전송
+        deliverToLocalClients(message);
+        Cluster.replicateBroadcast(message);
+    }
+
+    // 이 노드에 접속한 모든 클라이언트에게 전송 (인코딩은 한 번, 버퍼는 모든 연결이 공유)
+    static void deliverToLocalClients(String message) {
+        long start = System.nanoTime();
+        OutboundMessage encoded = new OutboundMessage(message);
+        ClientHandler[] all = clients.all();
+        for (ClientHandler writer : all) {
+            writer.sendMessage(encoded);  // 모든 클라이언트에게 상태 변경 메시지 전송
         }
+        FanoutStats.recordBroadcast(all.length);
+        Metrics.BROADCAST_NANOS.record(System.nanoTime() - start);
     }
 }
@@ -0,0 +1,481 @@
+package server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// 상태 변경 저널: 구역 상태(계절/결정 방식/운전 모드/온도/바람)와 진행 중인 투표를 append-only로 기록
+// 세그먼트(journal-N.log)는 memory-mapped 파일이며, 가득 차면 다음 세그먼트로 넘어가면서
+// 그 시점의 전체 상태를 snapshot-N.snap으로 남기고 이전 세그먼트는 삭제
+// 재시작 시 최신 스냅샷과 그 이후 세그먼트만 재생하므로 이력이 아무리 길어도 복구 시간은 세그먼트 하나 분량
+// fsync는 전용 스레드가 syncMillis마다 그동안 쌓인 구간을 한 번에 수행 (group commit, 최대 syncMillis 분량 유실 가능)
+//   -Daircon.journal.enabled=false  -Daircon.journal.dir=journal
+//   -Daircon.journal.segmentBytes=4194304  -Daircon.journal.syncMillis=10
+final class StateJournal {
+    // 레코드: [본문 길이 u16][종류 u8][구역 번호 u16][본문][CRC32 (종류~본문)]
+    private static final byte SEASON = 1;       // 문자열
+    private static final byte MODE_CHOICE = 2;  // 문자열
+    private static final byte AC_MODE = 3;      // 문자열
+    private static final byte TEMPERATURE = 4;  // i32
+    private static final byte WIND = 5;         // i32
+    private static final byte VOTE_OPEN = 6;    // 번호 i32, 온도 i32, 마감 시각 i64, 요청자, 투표권자 수 u16, 투표권자...
+    private static final byte VOTE_BALLOT = 7;  // 번호 i32, 찬성 u8, 자리
+    private static final byte VOTE_CLOSE = 8;   // 번호 i32
+    private static final int HEADER_SIZE = 5;
+    private static final int RECORD_OVERHEAD = HEADER_SIZE + 4;
+    private static final int MIN_SEGMENT_BYTES = 2 * (RECORD_OVERHEAD + 0xFFFF);
+
+    private static volatile StateJournal active; // null: 저널 미사용 (클라이언트 JVM 또는 비활성화)
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final ByteBuffer scratch = ByteBuffer.allocate(RECORD_OVERHEAD + 0xFFFF); // 레코드 조립용 (잠금 안에서만 사용)
+    private final CRC32 crc = new CRC32();
+    private long segment = -1;          // 현재 세그먼트 번호
+    private MappedByteBuffer mapped;    // 현재 세그먼트
+    private int synced = 0;             // 현재 세그먼트에서 force()까지 마친 위치
+    private final List<VoteSession> restoredVotes = new ArrayList<>(); // 복구한 진행 중 투표 (기록 시작 후 타이머 재개)
+
+    private StateJournal(Path dir, int segmentBytes) {
+        this.dir = dir;
+        this.segmentBytes = Math.max(segmentBytes, MIN_SEGMENT_BYTES);
+    }
+
+    // 서버 시작 시 한 번 호출: 이전 상태를 복구하고 새 세그먼트에 기록 시작
+    static void open(ClientRegistry clients) {
+        if (!Boolean.parseBoolean(System.getProperty("aircon.journal.enabled", "true"))) {
+            return;
+        }
+        StateJournal journal = new StateJournal(Path.of(System.getProperty("aircon.journal.dir", "journal")),
+                Integer.getInteger("aircon.journal.segmentBytes", 4 * 1024 * 1024));
+        try {
+            long start = System.nanoTime();
+            int replayed = journal.recover();
+            System.out.printf("[INFO] 상태 복구 완료: 레코드 %d개, %.1fms (%s)%n",
+                    replayed, (System.nanoTime() - start) / 1e6, journal.dir.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("[ERROR] 상태 저널을 열 수 없습니다: " + e.getMessage());
+            return;
+        }
+        active = journal;
+        for (VoteSession session : journal.restoredVotes) {
+            VoteManager.scheduleTimeout(session, clients); // 종료 기록이 저널에 남도록 기록 시작 후 재개
+        }
+        journal.startSyncer(Long.getLong("aircon.journal.syncMillis", 10));
+    }
+
+    // ====== 기록 (저널이 없으면 아무것도 하지 않음) ======
+    static void recordSeason(Zone zone) {
+        StateJournal journal = active;
+        if (journal != null) {
+            journal.appendString(SEASON, zone, zone.season);
+        }
+    }
+
+    static void recordModeChoice(Zone zone) {
+        StateJournal journal = active;
+        if (journal != null) {
+            journal.appendString(MODE_CHOICE, zone, zone.modeChoice);
+        }
+    }
+
+    static void recordAcMode(Zone zone) {
+        StateJournal journal = active;
+        if (journal != null) {
+            journal.appendString(AC_MODE, zone, zone.acMode);
+        }
+    }
+
+    static void recordTemperature(Zone zone) {
+        StateJournal journal = active;
+        if (journal != null) {
+            journal.appendInt(TEMPERATURE, zone, zone.currentTemperature);
+        }
+    }
+
+    static void recordWindSpeed(Zone zone) {
+        StateJournal journal = active;
+        if (journal != null) {
+            journal.appendInt(WIND, zone, zone.windSpeed);
+        }
+    }
+
+    static void recordVoteOpened(VoteSession session) {
+        StateJournal journal = active;
+        if (journal != null) {
+            synchronized (journal) {
+                ByteBuffer record = journal.encodeVoteOpen(session);
+                if (record != null) {
+                    journal.write(record);
+                }
+            }
+        }
+    }
+
+    static void recordBallot(VoteSession session, String seatId, boolean agree) {
+        StateJournal journal = active;
+        if (journal != null) {
+            synchronized (journal) {
+                journal.write(journal.encodeBallot(session, seatId, agree));
+            }
+        }
+    }
+
+    static void recordVoteClosed(VoteSession session) {
+        StateJournal journal = active;
+        if (journal != null) {
+            synchronized (journal) {
+                journal.begin(VOTE_CLOSE, session.zone.getIndex()).putInt(session.id);
+                journal.write(journal.end());
+            }
+        }
+    }
+
+    private synchronized void appendString(byte type, Zone zone, String value) {
+        putString(begin(type, zone.getIndex()), value);
+        write(end());
+    }
+
+    private synchronized void appendInt(byte type, Zone zone, int value) {
+        begin(type, zone.getIndex()).putInt(value);
+        write(end());
+    }
+
+    // ====== 인코딩 ======
+    private ByteBuffer begin(byte type, int zoneIndex) {
+        scratch.clear();
+        scratch.position(2);
+        scratch.put(type).putShort((short) zoneIndex);
+        return scratch;
+    }
+
+    // 길이와 CRC를 채우고 읽기 상태로 전환
+    private ByteBuffer end() {
+        int bodyLength = scratch.position() - HEADER_SIZE;
+        scratch.putShort(0, (short) bodyLength);
+        crc.reset();
+        crc.update(scratch.array(), 2, scratch.position() - 2);
+        scratch.putInt((int) crc.getValue());
+        return scratch.flip();
+    }
+
+    // 투표권자 목록까지 레코드 하나(본문 최대 0xFFFF바이트)에 담기지 않으면 기록하지 않고 null
+    // (복구 시 그 투표는 없는 것으로 보고, 뒤따르는 표와 종료 기록도 무시됨)
+    private ByteBuffer encodeVoteOpen(VoteSession session) {
+        int bodyLength = 4 + 4 + 8 + stringLength(session.requester) + 2;
+        for (String seat : session.eligible()) {
+            bodyLength += stringLength(seat);
+        }
+        if (bodyLength > 0xFFFF) {
+            System.out.println("[WARNING] 투표권자가 너무 많아 투표 #" + session.id + "는 상태 저널에 기록하지 않습니다: "
+                    + session.eligibleCount() + "석");
+            return null;
+        }
+        ByteBuffer body = begin(VOTE_OPEN, session.zone.getIndex());
+        body.putInt(session.id).putInt(session.temperature).putLong(session.deadlineMillis);
+        putString(body, session.requester);
+        body.putShort((short) session.eligibleCount()); // u16: 본문 길이 확인으로 0xFFFF 이하가 보장됨
+        for (String seat : session.eligible()) {
+            putString(body, seat);
+        }
+        return end();
+    }
+
+    private ByteBuffer encodeBallot(VoteSession session, String seatId, boolean agree) {
+        ByteBuffer body = begin(VOTE_BALLOT, session.zone.getIndex());
+        body.putInt(session.id).put((byte) (agree ? 1 : 0));
+        putString(body, seatId);
+        return end();
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(utf8.length, 0xFF);
+        buffer.put((byte) length).put(utf8, 0, length);
+    }
+
+    // 남은 본문에 문자열 하나가 온전히 들어 있는지
+    private static boolean hasString(ByteBuffer buffer) {
+        return buffer.hasRemaining() && (buffer.get(buffer.position()) & 0xFF) < buffer.remaining();
+    }
+
+    // putString이 쓰는 바이트 수 (길이 1바이트 + 최대 0xFF바이트)
+    private static int stringLength(String value) {
+        return 1 + Math.min(value.getBytes(StandardCharsets.UTF_8).length, 0xFF);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] utf8 = new byte[buffer.get() & 0xFF];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    // ====== 세그먼트 ======
+    // 잠금 안에서 호출. 세그먼트가 가득 차면 스냅샷을 남기고 다음 세그먼트로 전환
+    private void write(ByteBuffer record) {
+        try {
+            if (mapped.remaining() < record.remaining()) {
+                byte[] pending = new byte[record.remaining()]; // 스냅샷 작성이 scratch를 다시 쓰므로 복사해 둠
+                record.get(pending);
+                roll(segment + 1);
+                mapped.put(pending);
+                return;
+            }
+            mapped.put(record);
+        } catch (IOException e) {
+            System.err.println("[ERROR] 상태 저널 기록 실패: " + e.getMessage());
+        }
+    }
+
+    // 잠금 안에서 호출: 현재 상태를 snapshot-next로 남기고 journal-next를 연 뒤 이전 파일 삭제
+    private void roll(long next) throws IOException {
+        if (mapped != null) {
+            mapped.force();
+        }
+        writeSnapshot(next);
+        try (FileChannel channel = FileChannel.open(segmentPath(next),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes); // 매핑은 채널을 닫아도 유지됨
+        }
+        segment = next;
+        synced = 0;
+        deleteBefore(next);
+    }
+
+    private void writeSnapshot(long next) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Zone zone : ZoneManager.all()) {
+            putString(begin(SEASON, zone.getIndex()), zone.season);
+            copy(end(), out);
+            putString(begin(MODE_CHOICE, zone.getIndex()), zone.modeChoice);
+            copy(end(), out);
+            putString(begin(AC_MODE, zone.getIndex()), zone.acMode);
+            copy(end(), out);
+            begin(TEMPERATURE, zone.getIndex()).putInt(zone.currentTemperature);
+            copy(end(), out);
+            begin(WIND, zone.getIndex()).putInt(zone.windSpeed);
+            copy(end(), out);
+        }
+        for (VoteSession session : VoteManager.openSessionList()) {
+            if (session.isClosed()) {
+                continue;
+            }
+            ByteBuffer record = encodeVoteOpen(session);
+            if (record == null) {
+                continue;
+            }
+            copy(record, out);
+            for (Map.Entry<String, Boolean> ballot : session.ballots().entrySet()) {
+                copy(encodeBallot(session, ballot.getKey(), ballot.getValue()), out);
+            }
+        }
+
+        // 임시 파일에 쓰고 fsync 후 이름 변경 (반쯤 쓰인 스냅샷이 남지 않도록)
+        Path temp = dir.resolve("snapshot-" + next + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = ByteBuffer.wrap(out.toByteArray());
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, snapshotPath(next), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void copy(ByteBuffer record, ByteArrayOutputStream out) {
+        out.write(record.array(), record.position(), record.remaining());
+    }
+
+    private void deleteBefore(long next) throws IOException {
+        for (long old : list("journal-", ".log")) {
+            if (old < next) {
+                Files.deleteIfExists(segmentPath(old));
+            }
+        }
+        for (long old : list("snapshot-", ".snap")) {
+            if (old < next) {
+                Files.deleteIfExists(snapshotPath(old));
+            }
+        }
+    }
+
+    // ====== 복구 ======
+    private int recover() throws IOException {
+        Files.createDirectories(dir);
+        List<Long> snapshots = list("snapshot-", ".snap");
+        long base = snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1);
+        Map<Integer, VoteSession> votes = new HashMap<>();
+        int replayed = 0;
+        if (!snapshots.isEmpty()) {
+            replayed += replay(snapshotPath(base), votes);
+        }
+        long last = base;
+        for (long s : list("journal-", ".log")) {
+            if (s >= base) {
+                replayed += replay(segmentPath(s), votes); // 스냅샷 이후의 꼬리만 재생
+                last = Math.max(last, s);
+            }
+        }
+        for (VoteSession session : votes.values()) {
+            VoteManager.restore(session);
+            restoredVotes.add(session);
+        }
+        synchronized (this) {
+            roll(last + 1); // 복구한 상태를 새 스냅샷으로 남기고 새 세그먼트에서 시작
+        }
+        return replayed;
+    }
+
+    private int replay(Path file, Map<Integer, VoteSession> votes) throws IOException {
+        ByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int count = 0;
+        while (data.remaining() >= RECORD_OVERHEAD) {
+            int start = data.position();
+            int bodyLength = data.getShort(start) & 0xFFFF;
+            byte type = data.get(start + 2);
+            if (type == 0 || data.remaining() < RECORD_OVERHEAD + bodyLength) {
+                break; // 기록되지 않은 영역 (0으로 채워짐) 또는 잘린 레코드
+            }
+            crc.reset();
+            crc.update(data.duplicate().position(start + 2).limit(start + HEADER_SIZE + bodyLength));
+            if ((int) crc.getValue() != data.getInt(start + HEADER_SIZE + bodyLength)) {
+                System.out.println("[WARNING] 손상된 저널 레코드 이후는 무시합니다: " + file.getFileName() + " @" + start);
+                break;
+            }
+            int zoneIndex = data.getShort(start + 3) & 0xFFFF;
+            ByteBuffer body = data.duplicate().position(start + HEADER_SIZE).limit(start + HEADER_SIZE + bodyLength);
+            if (zoneIndex < ZoneManager.count()) { // 구역 설정이 줄어든 경우 남은 구역만 복구
+                apply(type, ZoneManager.all().get(zoneIndex), body, votes);
+            }
+            data.position(start + RECORD_OVERHEAD + bodyLength);
+            count++;
+        }
+        return count;
+    }
+
+    private static void apply(byte type, Zone zone, ByteBuffer body, Map<Integer, VoteSession> votes) {
+        switch (type) {
+            case SEASON:
+                zone.season = getString(body);
+                break;
+            case MODE_CHOICE:
+                zone.modeChoice = getString(body);
+                break;
+            case AC_MODE:
+                zone.acMode = getString(body);
+                break;
+            case TEMPERATURE:
+                zone.currentTemperature = body.getInt();
+                break;
+            case WIND:
+                zone.windSpeed = body.getInt();
+                break;
+            case VOTE_OPEN: {
+                int id = body.getInt();
+                int temperature = body.getInt();
+                long deadline = body.getLong();
+                String requester = getString(body);
+                int count = body.getShort() & 0xFFFF; // u16
+                Set<String> eligible = new HashSet<>();
+                int read = 0;
+                while (read < count && hasString(body)) {
+                    eligible.add(getString(body));
+                    read++;
+                }
+                if (read < count || body.hasRemaining()) {
+                    System.out.println("[WARNING] 투표권자 수가 본문과 맞지 않는 투표 기록은 무시합니다: 투표 #" + id);
+                    break;
+                }
+                votes.putIfAbsent(id, new VoteSession(id, zone, requester, temperature, deadline, Set.copyOf(eligible)));
+                break;
+            }
+            case VOTE_BALLOT: {
+                VoteSession session = votes.get(body.getInt());
+                boolean agree = body.get() == 1;
+                if (session != null) {
+                    session.cast(getString(body), agree); // 스냅샷에 이미 있는 표는 중복으로 무시됨
+                }
+                break;
+            }
+            case VOTE_CLOSE:
+                votes.remove(body.getInt());
+                break;
+            default:
+                System.out.println("[WARNING] 알 수 없는 저널 레코드: " + type);
+        }
+    }
+
+    // ====== fsync ======
+    // 쓰기 잠금은 위치만 읽을 때 잡고, force()는 잠금 밖에서 수행해 기록을 막지 않음
+    private void startSyncer(long syncMillis) {
+        Thread syncer = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(syncMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                sync();
+            }
+        }, "journal-sync");
+        syncer.setDaemon(true);
+        syncer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::sync));
+    }
+
+    private void sync() {
+        MappedByteBuffer target;
+        int from;
+        int to;
+        synchronized (this) {
+            target = mapped;
+            from = synced;
+            to = mapped.position();
+        }
+        if (to > from) {
+            target.force(from, to - from);
+            synchronized (this) {
+                if (mapped == target) {
+                    synced = Math.max(synced, to);
+                }
+            }
+        }
+    }
+
+    // ====== 파일 ======
+    private Path segmentPath(long n) {
+        return dir.resolve("journal-" + n + ".log");
+    }
+
+    private Path snapshotPath(long n) {
+        return dir.resolve("snapshot-" + n + ".snap");
+    }
+
+    // prefix<번호>suffix 형식 파일의 번호 (오름차순)
+    private List<Long> list(String prefix, String suffix) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .forEach(name -> {
+                        try {
+                            numbers.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                        } catch (NumberFormatException ignored) {
+                        }
+                    });
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+}
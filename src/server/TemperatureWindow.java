@@ -0,0 +1,131 @@
+package server;
+
+import java.util.Arrays;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+// 사용자 요청 온도의 집계 창 (구역마다 하나)
+// 자리마다 마지막 요청만 남기고(연속 클릭으로 평균을 끌어올 수 없음) 온도별 인원 히스토그램을 유지
+// 창이 닫힐 때 구역의 결정 방식(평균/중앙값/절사평균/쾌적)에 따라 히스토그램에서 설정 온도를 계산
+// 예약 작업은 창마다 최대 하나라서 요청이 몰려도 스케줄러 큐가 늘어나지 않음
+final class TemperatureWindow {
+    enum Type {
+        FIXED,   // 첫 요청부터 창 길이만큼 모은 뒤 평균 적용 후 비움
+        SLIDING  // 최근 창 길이 이내의 요청만 유지하며 slide 간격마다 평균 적용
+    }
+
+    // -Daircon.window.type (fixed/sliding), -Daircon.window.millis, -Daircon.window.slideMillis
+    static final Type DEFAULT_TYPE = Type.valueOf(System.getProperty("aircon.window.type", "fixed").toUpperCase());
+    static final long DEFAULT_LENGTH_MILLIS = Long.getLong("aircon.window.millis", 5000);
+    static final long DEFAULT_SLIDE_MILLIS = Long.getLong("aircon.window.slideMillis", 1000);
+
+    private final Type type;
+    private final long lengthMillis;
+    private final long slideMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Supplier<String> choice; // 구역의 현재 온도 결정 방식
+    private final IntConsumer onAverage;   // 창이 닫힐 때 설정 온도 전달
+    private final int firstSeat;           // 구역의 첫 자리 (1번 슬롯)
+
+    private static final int NONE = Integer.MIN_VALUE; // 요청 없음 표시
+
+    private final int[] requested;     // 자리 슬롯 → 요청 온도 (NONE: 요청 없음, 0번은 구역 밖 자리가 함께 사용)
+    private final long[] requestedAt;  // 자리 슬롯 → 요청 시각 (SLIDING 만료 판단)
+    private final PreferenceHistogram histogram = new PreferenceHistogram(); // 현재 요청들의 온도별 인원
+    private boolean scheduled = false; // 예약된 평가 작업 존재 여부
+    private int lastAverage = 0;       // SLIDING에서 마지막으로 적용한 온도 (같은 값이면 다시 알리지 않음)
+
+    TemperatureWindow(int firstSeat, int lastSeat, ScheduledExecutorService scheduler, Supplier<String> choice, IntConsumer onAverage) {
+        this(DEFAULT_TYPE, DEFAULT_LENGTH_MILLIS, DEFAULT_SLIDE_MILLIS, firstSeat, lastSeat, scheduler, choice, onAverage);
+    }
+
+    TemperatureWindow(Type type, long lengthMillis, long slideMillis, int firstSeat, int lastSeat,
+                      ScheduledExecutorService scheduler, Supplier<String> choice, IntConsumer onAverage) {
+        this.type = type;
+        this.lengthMillis = lengthMillis;
+        this.slideMillis = slideMillis;
+        this.scheduler = scheduler;
+        this.choice = choice;
+        this.onAverage = onAverage;
+        this.firstSeat = firstSeat;
+        this.requested = new int[lastSeat - firstSeat + 2];
+        this.requestedAt = new long[lastSeat - firstSeat + 2];
+        Arrays.fill(requested, NONE);
+    }
+
+    // 자리 번호 → 슬롯 (첫 자리가 1번, 숫자가 아니거나 구역 범위를 벗어난 자리는 0번 슬롯을 함께 사용)
+    int slotOf(String seatId) {
+        try {
+            int slot = Integer.parseInt(seatId) - firstSeat + 1;
+            return slot >= 1 && slot < requested.length ? slot : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // 요청 추가: 같은 자리의 이전 요청은 대체
+    synchronized void add(String seatId, int temperature) {
+        int slot = slotOf(seatId);
+        if (requested[slot] != NONE) {
+            histogram.remove(requested[slot]);
+        }
+        requested[slot] = temperature;
+        requestedAt[slot] = System.currentTimeMillis();
+        histogram.add(temperature);
+
+        if (!scheduled) {
+            scheduled = true;
+            long delay = type == Type.FIXED ? lengthMillis : slideMillis;
+            scheduler.schedule(this::evaluate, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // 예약된 평가: 결정 방식에 따른 설정 온도를 계산해 전달 (그 사이 다수결로 바뀌었으면 평균)
+    private void evaluate() {
+        int average;
+        synchronized (this) {
+            if (type == Type.SLIDING) {
+                expire(System.currentTimeMillis() - lengthMillis);
+            }
+            if (histogram.size() == 0) {
+                scheduled = false;
+                return;
+            }
+            PreferenceHistogram.Policy policy = PreferenceHistogram.Policy.of(choice.get());
+            average = histogram.setpoint(policy != null ? policy : PreferenceHistogram.Policy.AVERAGE);
+
+            if (type == Type.FIXED) {
+                clear();
+                scheduled = false;
+            } else {
+                scheduler.schedule(this::evaluate, slideMillis, TimeUnit.MILLISECONDS); // 남은 요청이 있는 동안 계속 평가
+                if (average == lastAverage) {
+                    return;
+                }
+                lastAverage = average;
+            }
+        }
+        onAverage.accept(average); // 잠금 밖에서 적용 (알림 전송이 요청 추가를 막지 않도록)
+    }
+
+    // 기준 시각 이전의 요청 제거 (SLIDING)
+    private void expire(long cutoff) {
+        for (int slot = 0; slot < requested.length; slot++) {
+            if (requested[slot] != NONE && requestedAt[slot] < cutoff) {
+                histogram.remove(requested[slot]);
+                requested[slot] = NONE;
+            }
+        }
+    }
+
+    private void clear() {
+        Arrays.fill(requested, NONE);
+        histogram.clear();
+    }
+
+    synchronized int size() {
+        return histogram.size();
+    }
+}
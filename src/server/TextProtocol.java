@@ -0,0 +1,95 @@
+package server;
+
+// 기존 한 줄 텍스트 프로토콜 ("온도 설정: 24", "투표: yes", "투표: no 12" ...) 해석
+public final class TextProtocol {
+    public static final String ADMIN_CALL = "관리자 호출:";
+    public static final String NOTICE = "[공지]";
+    public static final String TEMPERATURE = "온도 설정:";
+    public static final String VOTE = "투표:";
+    public static final String MODE = "모드 변경:";
+    public static final String WIND = "바람 세기:";
+    public static final String METRICS = "메트릭 요청";
+    public static final String STATE = "상태 요청:"; // 뒤에 마지막으로 적용한 상태 버전 (0: 전체 상태)
+    public static final String CHAT_HISTORY = "채팅 기록 요청:"; // 뒤에 번호: 이 번호보다 오래된 채팅 (0: 가장 최근부터) [구역 이름: 관리자 전용]
+    public static final String ADMIN_CONTROL = "관리자 제어:";   // 뒤에 "<대상 구역> <항목=값>..." (AdminCommand)
+    // 예전 관리자 화면이 보내던 줄: 모든 구역에 대한 관리자 제어로 처리
+    public static final String ADMIN_TEMPERATURE = "관리자 온도 설정:";
+    public static final String ADMIN_CHOICE = "관리자 모드 변경:";
+
+    // 과거 채팅 응답 (서버 → 클라이언트): "[채팅 기록] <번호> <내용>" 여러 줄 뒤 "[채팅 기록 끝] <다음 요청 번호, 0이면 더 없음>"
+    public static final String HISTORY_LINE = "[채팅 기록]";
+    public static final String HISTORY_END = "[채팅 기록 끝]";
+    public static final String REPLAY_LINE = "[채팅 재생]";   // 접속 직후 다시 보내는 최근 채팅: "[채팅 재생] <번호> <내용>"
+    public static final String CHAT_LINE = "[채팅]";          // 실시간 채팅 "[채팅] <번호> <내용>" (핸드셰이크에 CHAT= 을 붙인 연결만)
+
+    private TextProtocol() {
+    }
+
+    // 한 줄을 해석해 handler의 해당 메서드 호출
+    public static void dispatch(String input, CommandHandler handler) {
+        if (input.startsWith(ADMIN_CALL)) {  // 관리자 호출 처리
+            handler.onAdminCall(valueOf(input, ADMIN_CALL));
+        } else if (input.startsWith(ADMIN_CONTROL)) {
+            handler.onAdminControl(valueOf(input, ADMIN_CONTROL));  // 관리자 제어
+        } else if (input.startsWith(ADMIN_TEMPERATURE)) {
+            handler.onAdminControl("전체 temperature=" + valueOf(input, ADMIN_TEMPERATURE));
+        } else if (input.startsWith(ADMIN_CHOICE)) {
+            handler.onAdminControl("전체 choice=" + valueOf(input, ADMIN_CHOICE));
+        } else if (input.startsWith(NOTICE)) {
+            handler.onNotice(input);  // 공지 처리
+        } else if (input.startsWith(TEMPERATURE)) {
+            try {
+                handler.onTemperature(Integer.parseInt(valueOf(input, TEMPERATURE)));  // 온도 설정 요청 처리
+            } catch (NumberFormatException e) {
+                handler.onMalformed("[오류] 잘못된 온도 값입니다.");
+            }
+        } else if (input.startsWith(VOTE)) {
+            onVote(valueOf(input, VOTE), handler);  // 투표 처리
+        } else if (input.startsWith(MODE)) {
+            handler.onModeChange(valueOf(input, MODE));  // 모드 변경 요청 처리
+        } else if (input.startsWith(WIND)) {
+            try {
+                handler.onWindSpeed(Integer.parseInt(valueOf(input, WIND)));  // 바람 세기 설정 요청 처리
+            } catch (NumberFormatException e) {
+                handler.onMalformed("[오류] 잘못된 바람 세기 값입니다.");
+            }
+        } else if (input.startsWith(CHAT_HISTORY)) {
+            String[] parts = valueOf(input, CHAT_HISTORY).split("\\s+", 2);
+            try {
+                handler.onChatHistory(Long.parseLong(parts[0]), parts.length > 1 ? parts[1] : null);  // 과거 채팅 요청
+            } catch (NumberFormatException e) {
+                handler.onMalformed("[오류] 잘못된 채팅 기록 번호입니다.");
+            }
+        } else if (input.startsWith(STATE)) {
+            try {
+                handler.onStateRequest(Long.parseLong(valueOf(input, STATE)));  // 상태 다시 받기
+            } catch (NumberFormatException e) {
+                handler.onMalformed("[오류] 잘못된 상태 버전입니다.");
+            }
+        } else if (input.equals(METRICS)) {
+            handler.onMetricsRequest();  // 지표 조회
+        } else {
+            handler.onChat(input);  // 일반 메시지 브로드캐스트
+        }
+    }
+
+    // "yes" / "no" 뒤에 투표 번호가 올 수 있음 ("투표: yes 12")
+    private static void onVote(String value, CommandHandler handler) {
+        int space = value.indexOf(' ');
+        if (space < 0) {
+            handler.onVote(value.equalsIgnoreCase("yes"), 0);
+            return;
+        }
+        try {
+            int voteId = Integer.parseInt(value.substring(space + 1).trim());
+            handler.onVote(value.substring(0, space).equalsIgnoreCase("yes"), voteId);
+        } catch (NumberFormatException e) {
+            handler.onMalformed("[오류] 잘못된 투표 번호입니다.");
+        }
+    }
+
+    // 접두사 뒤의 값 (split(":")과 달리 값이 비어 있어도 예외 없음)
+    private static String valueOf(String input, String prefix) {
+        return input.substring(prefix.length()).trim();
+    }
+}
@@ -0,0 +1,139 @@
+package server;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// 구역별 실내 공기 온도 시뮬레이션: 설정 온도(currentTemperature)와 실제 공기 온도를 나눠,
+// 공기 온도가 바람 세기·계절(바깥 온도)·재실 인원에 따라 설정 온도 쪽으로 조금씩 움직이게 함
+// 1초 동안의 변화 = 에어컨(바람 세기 × AC_RATE × (설정 - 공기), 냉방은 내리기만/난방은 올리기만)
+//                 + 바깥 공기 유입(LEAK_RATE × (바깥 - 공기)) + 사람 열(HEAT_PER_PERSON × 인원)
+// 상태는 구역 번호로 찾는 기본형 배열이고, 구역이 많으면 fork/join으로 나눠 한 틱을 병렬로 계산
+// (구역 10,000개 한 틱: 몇 ms 이내, benchmarks의 ThermalSimulationBenchmark 참고)
+//   -Daircon.sim.enabled (기본 true), -Daircon.sim.tickMillis (기본 1000)
+final class ThermalSimulator {
+    static final long TICK_MILLIS = Long.getLong("aircon.sim.tickMillis", 1000);
+    static final double AC_RATE = 0.004;          // 바람 세기 1당 설정 온도로 다가가는 비율 (/초, 1단이면 약 4분에 63%)
+    static final double LEAK_RATE = 0.0005;       // 바깥 온도로 새는 비율 (/초)
+    static final double HEAT_PER_PERSON = 0.0002; // 재실자 한 명이 더하는 열 (°C/초)
+    static final double SUMMER_OUTSIDE = 31;      // 바깥 온도 (°C)
+    static final double WINTER_OUTSIDE = 5;
+    private static final int SPLIT = 1024;        // 작업 하나가 직접 계산하는 최대 구역 수
+
+    final double[] air;        // 공기 온도 (°C)
+    final double[] setpoint;   // 설정 온도 (°C)
+    final int[] wind;          // 바람 세기 (1~3)
+    final int[] occupants;     // 재실 인원
+    final boolean[] heating;   // true: 난방, false: 냉방
+    final double[] outside;    // 바깥 온도 (°C)
+
+    ThermalSimulator(int zones, double initialAir) {
+        air = new double[zones];
+        setpoint = new double[zones];
+        wind = new int[zones];
+        occupants = new int[zones];
+        heating = new boolean[zones];
+        outside = new double[zones];
+        Arrays.fill(air, initialAir);
+        Arrays.fill(setpoint, initialAir);
+        Arrays.fill(wind, 1);
+        Arrays.fill(outside, SUMMER_OUTSIDE);
+    }
+
+    // 모든 구역을 seconds초만큼 진행
+    void step(double seconds) {
+        if (air.length <= SPLIT) {
+            stepRange(0, air.length, seconds);
+        } else {
+            ForkJoinPool.commonPool().invoke(new Step(0, air.length, seconds));
+        }
+    }
+
+    private void stepRange(int from, int to, double seconds) {
+        for (int i = from; i < to; i++) {
+            double current = air[i];
+            double conditioning = wind[i] * AC_RATE * (setpoint[i] - current);
+            conditioning = heating[i] ? Math.max(0, conditioning) : Math.min(0, conditioning);
+            double drift = conditioning + LEAK_RATE * (outside[i] - current) + HEAT_PER_PERSON * occupants[i];
+            air[i] = current + drift * seconds;
+        }
+    }
+
+    private final class Step extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final double seconds;
+
+        Step(int from, int to, double seconds) {
+            this.from = from;
+            this.to = to;
+            this.seconds = seconds;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT) {
+                stepRange(from, to, seconds);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Step(from, middle, seconds), new Step(middle, to, seconds));
+        }
+    }
+
+    // ====== 서버 연결 ======
+
+    // 서버 시작 시 한 번 호출: 틱마다 구역 상태를 읽어 진행하고, 표시 값(0.1°C)이 바뀐 구역만 "air" 변경분 전송
+    // 클러스터에서는 이 노드가 맡은 구역만 진행하고, 나머지는 복제된 공기 온도를 이어받을 값으로 들고 있음
+    static void start(ClientRegistry clients) {
+        if (!Boolean.parseBoolean(System.getProperty("aircon.sim.enabled", "true")) || TICK_MILLIS <= 0) {
+            return;
+        }
+        List<Zone> zones = ZoneManager.all();
+        ThermalSimulator simulator = new ThermalSimulator(zones.size(), 0);
+        long[] shown = new long[zones.size()]; // 마지막으로 보낸 값 (0.1°C 단위)
+        for (Zone zone : zones) {
+            simulator.air[zone.getIndex()] = zone.airTemperature;
+            shown[zone.getIndex()] = Math.round(zone.airTemperature * 10);
+        }
+
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("thermal-sim").factory());
+        ticker.scheduleAtFixedRate(() -> {
+            for (Zone zone : zones) {
+                int i = zone.getIndex();
+                simulator.setpoint[i] = zone.currentTemperature;
+                simulator.wind[i] = zone.windSpeed;
+                simulator.occupants[i] = clients.seatsIn(zone).length;
+                simulator.heating[i] = "난방".equals(zone.acMode);
+                simulator.outside[i] = "winter".equals(zone.season) ? WINTER_OUTSIDE : SUMMER_OUTSIDE;
+            }
+            simulator.step(TICK_MILLIS / 1000.0);
+            for (Zone zone : zones) {
+                int i = zone.getIndex();
+                if (!Cluster.owns(zone)) {
+                    simulator.air[i] = zone.airTemperature;
+                    shown[i] = Math.round(zone.airTemperature * 10);
+                    continue;
+                }
+                zone.airTemperature = simulator.air[i];
+                long tenths = Math.round(simulator.air[i] * 10);
+                if (tenths != shown[i]) {
+                    shown[i] = tenths;
+                    zone.state.publish("air", format(simulator.air[i]));
+                }
+            }
+        }, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    static String format(double temperature) {
+        return String.format(Locale.ROOT, "%.1f", temperature);
+    }
+}
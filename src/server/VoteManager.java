@@ -1,102 +1,211 @@
 package server;
 
-import java.util.*;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+// 온도 변경 투표. 요청마다 번호가 붙은 투표(VoteSession)가 열리며 여러 투표가 동시에 진행될 수 있음
+// 번호 없이 들어온 표("투표: yes")는 그 구역에서 가장 최근에 열린 투표에 반영
+// 클러스터에서는 투표를 연 노드가 집계하고, 다른 노드는 복제본만 들고 있다가 그 노드가 멈추면 이어받음 (Cluster)
 public class VoteManager {
-    private static final Map<String, Integer> voteCounts = new ConcurrentHashMap<>(); // 투표 결과를 저장하는 맵
-    private static volatile String lastSender = null; // 마지막 투표 요청자
-    private static volatile int lastRequestedTemperature = 24; // 최근 요청된 온도 (기본값: 24)
-    private static final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1); // 30초 타이머 관리용 스케줄러
-
-    // 투표 요청 처리
-    public static void handleVoteRequest(int temperature, ClientHandler sender, List<ClientHandler> clients) {
-        lastSender = sender.getClientId();
-        lastRequestedTemperature = temperature; // 요청된 온도 저장
-
-        // 투표 결과 초기화
-        synchronized (voteCounts) {
-            voteCounts.clear();
-            voteCounts.put("yes", 0);
-            voteCounts.put("no", 0);
+    static final long VOTE_SECONDS = 30; // 투표 시간
+
+    private static final AtomicInteger nextId = new AtomicInteger(Cluster.voteIdBase()); // 투표 번호 발급
+    private static final Map<Integer, VoteSession> sessions = new ConcurrentHashMap<>(); // 진행 중인 투표
+    private static final Map<Integer, VoteSession> replicas = new ConcurrentHashMap<>(); // 다른 노드가 진행 중인 투표 (복제본)
+
+    // 투표 요청 처리: 현재 구역의 좌석(요청자 제외)을 투표권자로 고정하고 새 투표를 연다. 투표 번호 반환
+    public static int handleVoteRequest(Zone zone, int temperature, ClientHandler sender, ClientRegistry clients) {
+        Set<String> eligible = new HashSet<>();
+        for (ClientHandler client : clients.seatsIn(zone)) {
+            if (client != sender) {
+                eligible.add(client.getClientId());
+            }
         }
+        VoteSession session = new VoteSession(nextId.incrementAndGet(), zone, sender.getClientId(), temperature,
+                System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(VOTE_SECONDS), Set.copyOf(eligible));
+        sessions.put(session.id, session);
+        zone.latestVote = session;
+        StateJournal.recordVoteOpened(session);
+        Cluster.replicateVoteOpened(session);
+        Metrics.VOTES_OPENED.inc();
+        AdminFeed.record(AdminFeed.Kind.VOTE_OPENED);
 
         // 투표 메시지 브로드캐스트
-        String voteMessage = String.format("%s번 고객님이 %d도로 설정하기를 원합니다. 동의하시면 Yes버튼을, 동의하지 않으시면 No버튼을 눌러주세요. (30초가 지나면 자동으로 동의하는 것으로 간주합니다.)",
-                sender.getClientId(), temperature);
-        broadcastToAllClients(voteMessage, sender, clients);
+        String voteMessage = String.format("%s번 고객님이 %d도로 설정하기를 원합니다. 동의하시면 Yes버튼을, 동의하지 않으시면 No버튼을 눌러주세요. (30초가 지나면 자동으로 동의하는 것으로 간주합니다.) [투표 #%d]",
+                sender.getClientId(), temperature, session.id);
+        broadcastToZone(zone, voteMessage, sender, clients);
 
-        // 30초 타이머 설정: 30초 후 투표 결과를 처리하는 메소드 호출
-        scheduler.schedule(() -> finalizeVote(clients), 30, TimeUnit.SECONDS);
+        if (session.eligibleCount() == 0) {
+            finalizeVote(session, clients); // 투표할 사람이 없으면 바로 종료
+            return session.id;
+        }
+        // 30초 타이머 설정: 조기 종료되면 취소됨 (구역 샤드에서 실행)
+        session.setTimer(zone.shard().schedule(() -> finalizeVote(session, clients), VOTE_SECONDS, TimeUnit.SECONDS));
+        return session.id;
     }
 
-    // 투표 처리
-    public static void handleVote(String clientId, boolean agree, List<ClientHandler> clients) {
-        // 요청자는 투표에 참여할 수 없음
-        if (clientId.equals(lastSender)) {
-            findClientById(clientId, clients).sendMessage("[알림] 요청자는 투표에 참여할 수 없습니다.");
-            return;
+    // 투표 처리 (sessionId 0: 구역의 최근 투표). 표가 반영되면 true
+    public static boolean handleVote(Zone zone, String clientId, boolean agree, int sessionId, ClientRegistry clients) {
+        VoteSession session = sessionId == 0 ? zone.latestVote : sessions.get(sessionId);
+        if (session == null || session.zone != zone) {
+            reply(clients, clientId, "[알림] 진행 중인 투표가 없습니다.");
+            return false;
         }
 
-        // 투표 결과 카운트
-        synchronized (voteCounts) {
-            if (agree) {
-                voteCounts.merge("yes", 1, Integer::sum);
-            } else {
-                voteCounts.merge("no", 1, Integer::sum);
-            }
+        switch (session.cast(clientId, agree)) {
+            case ACCEPTED:
+                StateJournal.recordBallot(session, clientId, agree);
+                Cluster.replicateBallot(session, clientId, agree);
+                AdminFeed.record(AdminFeed.Kind.BALLOT);
+                return true;
+            case LAST_BALLOT:
+                StateJournal.recordBallot(session, clientId, agree);
+                Cluster.replicateBallot(session, clientId, agree);
+                AdminFeed.record(AdminFeed.Kind.BALLOT);
+                finalizeVote(session, clients); // 투표권자 전원이 투표하면 바로 종료
+                return true;
+            case CLOSED:
+                reply(clients, clientId, "[알림] 이미 종료된 투표입니다. [투표 #" + session.id + "]");
+                break;
+            case REQUESTER:
+                reply(clients, clientId, "[알림] 요청자는 투표에 참여할 수 없습니다.");
+                break;
+            case NOT_ELIGIBLE:
+                reply(clients, clientId, "[알림] 투표가 시작된 뒤 입장한 자리는 투표할 수 없습니다. [투표 #" + session.id + "]");
+                break;
+            case DUPLICATE:
+                reply(clients, clientId, "[알림] 이미 투표하셨습니다. [투표 #" + session.id + "]");
+                break;
         }
+        return false;
+    }
 
-        // 투표 완료 여부 확인: 요청자를 제외한 모든 클라이언트가 투표 완료 시 결과 처리
-        int totalVotes = voteCounts.values().stream().mapToInt(Integer::intValue).sum();
-        if (totalVotes >= clients.size() - 1) {
-            finalizeVote(clients); // 투표 종료 처리
+    // 투표 종료 및 결과 처리 (조기 종료/시간 초과 중 먼저 도착한 쪽만 처리)
+    private static void finalizeVote(VoteSession session, ClientRegistry clients) {
+        if (!session.close()) {
+            return;
         }
-    }
+        sessions.remove(session.id);
+        StateJournal.recordVoteClosed(session);
+        Cluster.replicateVoteClosed(session);
 
-    // 투표 종료 및 결과 처리
-    private static void finalizeVote(List<ClientHandler> clients) {
-        synchronized (voteCounts) {
-            // 다수결로 결과 처리
-            boolean isApproved = voteCounts.getOrDefault("yes", 0) > voteCounts.getOrDefault("no", 0);
+        // 투표하지 않은 좌석은 동의로 간주 (종료 뒤에는 집계가 바뀌지 않으므로 종료 시점의 값)
+        int yes = session.yes() + (session.eligibleCount() - session.cast());
+        int no = session.no();
+        boolean isApproved = yes > no;
+        (isApproved ? Metrics.VOTES_APPROVED : Metrics.VOTES_REJECTED).inc();
+        long openedAt = session.deadlineMillis - TimeUnit.SECONDS.toMillis(VOTE_SECONDS);
+        Metrics.VOTE_MILLIS.record(System.currentTimeMillis() - openedAt);
 
+        Zone zone = session.zone;
+        zone.execute(() -> {
             // 온도 변경 여부 적용
             if (isApproved) {
-                AirConditionerManager.setTemperature(lastRequestedTemperature); // 온도 변경
-                AirConditionerManager.applyVoteResult(true); // 변경 승인
+                AirConditionerManager.setTemperature(zone, session.temperature); // 온도 변경
+                AirConditionerManager.applyVoteResult(zone, true); // 변경 승인
             } else {
-                AirConditionerManager.applyVoteResult(false); // 변경 거부
+                AirConditionerManager.applyVoteResult(zone, false); // 변경 거부
             }
 
             // 투표 결과 메시지 전파
-            String resultMessage = "[투표 결과] " + (isApproved ? "찬성 다수로 변경 승인" : "반대 다수로 변경 거부");
-            broadcastToAllClients(resultMessage, null, clients);
+            String resultMessage = "[투표 결과] " + (isApproved ? "찬성 다수로 변경 승인" : "반대 다수로 변경 거부")
+                    + " (찬성 " + yes + ", 반대 " + no + ") [투표 #" + session.id + "]";
+            broadcastToZone(zone, resultMessage, null, clients);
+        });
+    }
+
+    // 저널에서 복구한 투표를 진행 중 목록에 다시 등록
+    static void restore(VoteSession session) {
+        nextId.accumulateAndGet(session.id, Math::max);
+        sessions.put(session.id, session);
+        Zone zone = session.zone;
+        if (zone.latestVote == null || zone.latestVote.id < session.id) {
+            zone.latestVote = session;
+        }
+    }
+
+    // 복구한 투표의 시간 초과 처리 예약 (재시작 전 남은 시간만큼 대기, 이미 지났으면 바로 종료)
+    static void scheduleTimeout(VoteSession session, ClientRegistry clients) {
+        Zone zone = session.zone;
+        long remaining = session.cast() == session.eligibleCount() ? 0 // 종료 기록 직전에 멈춘 경우
+                : Math.max(0, session.deadlineMillis - System.currentTimeMillis());
+        session.setTimer(zone.shard().schedule(() -> finalizeVote(session, clients), remaining, TimeUnit.MILLISECONDS));
+    }
 
-            // 투표 초기화
-            voteCounts.clear();
-            lastSender = null;
+    // ====== 다른 노드의 투표 복제본 (구역 샤드에서 호출) ======
+    static void replicaOpened(VoteSession session) {
+        replicas.putIfAbsent(session.id, session);
+    }
+
+    static void replicaBallot(int id, String seatId, boolean agree) {
+        VoteSession session = replicas.get(id);
+        if (session != null) {
+            session.cast(seatId, agree); // 다시 받은 표는 중복으로 무시됨
+        }
+    }
+
+    static void replicaClosed(int id) {
+        VoteSession session = replicas.remove(id);
+        if (session != null) {
+            session.close();
         }
     }
 
-    // 클라이언트 ID로 클라이언트를 찾는 헬퍼 메소드
-    private static ClientHandler findClientById(String clientId, List<ClientHandler> clients) {
-        for (ClientHandler client : clients) {
-            if (client.getClientId().equals(clientId)) {
-                return client;
+    // 구역의 전체 상태를 다시 받기 전에 그 구역의 복제본을 비움
+    static void dropReplicas(Zone zone) {
+        replicas.values().removeIf(session -> session.zone == zone);
+    }
+
+    // 구역을 새로 맡음: 복제본으로 들고 있던 투표를 이어받아 남은 시간 뒤에 종료 (이 노드의 저널에도 기록)
+    static void adopt(Zone zone, ClientRegistry clients) {
+        for (VoteSession session : replicas.values()) {
+            if (session.zone != zone || replicas.remove(session.id) == null) {
+                continue;
+            }
+            sessions.put(session.id, session);
+            if (zone.latestVote == null || zone.latestVote.id < session.id) {
+                zone.latestVote = session;
             }
+            StateJournal.recordVoteOpened(session);
+            for (Map.Entry<String, Boolean> ballot : session.ballots().entrySet()) {
+                StateJournal.recordBallot(session, ballot.getKey(), ballot.getValue());
+            }
+            scheduleTimeout(session, clients);
+        }
+    }
+
+    // 진행 중인 투표 (스냅샷 기록용)
+    static Iterable<VoteSession> openSessionList() {
+        return sessions.values();
+    }
+
+    // 진행 중인 투표 수
+    public static int openSessions() {
+        return sessions.size();
+    }
+
+    private static void reply(ClientRegistry clients, String clientId, String message) {
+        ClientHandler client = clients.get(clientId);
+        if (client != null) {
+            client.sendMessage(message);
         }
-        return null;
     }
 
-    // 모든 클라이언트에게 메시지를 전파하는 메소드
-    private static void broadcastToAllClients(String message, ClientHandler excludeClient, List<ClientHandler> clients) {
-        for (ClientHandler client : clients) {
-            if (excludeClient == null || !client.getClientId().equals(excludeClient.getClientId())) {
-                client.sendMessage(message); // 제외된 클라이언트를 제외하고 메시지 전송
+    // 구역의 모든 좌석에게 메시지를 전파하는 메소드 (관리자에게는 AdminFeed가 요약해서 보냄)
+    private static void broadcastToZone(Zone zone, String message, ClientHandler excludeClient, ClientRegistry clients) {
+        long start = System.nanoTime();
+        OutboundMessage encoded = new OutboundMessage(message); // 한 번만 인코딩해 모든 수신자가 공유
+        ClientHandler[] zoneSeats = clients.seatsIn(zone);
+        for (ClientHandler client : zoneSeats) {
+            if (client != excludeClient) {
+                client.sendMessage(encoded); // 제외된 클라이언트를 제외하고 메시지 전송
             }
         }
+        FanoutStats.recordBroadcast(zoneSeats.length);
+        Metrics.BROADCAST_NANOS.record(System.nanoTime() - start);
     }
 }
@@ -0,0 +1,126 @@
+package server;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 온도 변경 투표 한 건. 투표가 열릴 때 구역의 좌석을 투표권자로 고정하고
+// 찬반 수와 종료 여부는 한 값에 묶어 CAS 한 번으로 갱신: 종료 뒤에는 집계가 바뀌지 않고, 종료와 겹친 표는 거부됨
+final class VoteSession {
+    // 집계 값: [종료 1비트][반대 31비트][찬성 31비트]
+    private static final long CLOSED = 1L << 62;
+    private static final long NO_UNIT = 1L << 31;
+    private static final long COUNT_MASK = NO_UNIT - 1;
+
+    // 표 한 장의 처리 결과
+    enum Result {
+        ACCEPTED,     // 반영됨
+        LAST_BALLOT,  // 반영됨, 모든 투표권자가 투표를 마침
+        CLOSED,       // 이미 종료된 투표
+        REQUESTER,    // 요청자는 투표할 수 없음
+        NOT_ELIGIBLE, // 투표가 열린 뒤 입장했거나 다른 구역의 좌석
+        DUPLICATE     // 이미 투표한 좌석
+    }
+
+    final int id;              // 투표 번호
+    final Zone zone;           // 투표가 열린 구역
+    final String requester;    // 요청자 자리 번호
+    final int temperature;     // 요청된 온도
+    final long deadlineMillis; // 시간 초과 시각 (재시작 후 남은 시간 계산용)
+
+    private final Set<String> eligible;                                  // 투표가 열릴 때의 투표권자 (요청자 제외)
+    private final Map<String, Boolean> ballots = new ConcurrentHashMap<>(); // 투표를 마친 좌석 → 찬성 여부
+    private final AtomicLong tally = new AtomicLong();                   // 찬반 수와 종료 여부
+    private volatile ScheduledFuture<?> timer;                           // 시간 초과 처리 (조기 종료 시 취소)
+
+    VoteSession(int id, Zone zone, String requester, int temperature, long deadlineMillis, Set<String> eligible) {
+        this.id = id;
+        this.zone = zone;
+        this.requester = requester;
+        this.temperature = temperature;
+        this.deadlineMillis = deadlineMillis;
+        this.eligible = eligible;
+    }
+
+    // 표 반영: 같은 좌석의 두 번째 표는 거부
+    Result cast(String seatId, boolean agree) {
+        if (isClosed()) {
+            return Result.CLOSED;
+        }
+        if (seatId.equals(requester)) {
+            return Result.REQUESTER;
+        }
+        if (!eligible.contains(seatId)) {
+            return Result.NOT_ELIGIBLE;
+        }
+        if (ballots.putIfAbsent(seatId, agree) != null) {
+            return Result.DUPLICATE;
+        }
+        long unit = agree ? 1 : NO_UNIT;
+        long current;
+        do {
+            current = tally.get();
+            if ((current & CLOSED) != 0) {
+                ballots.remove(seatId); // 확인과 반영 사이에 종료됨: 집계에도 기록에도 남기지 않음
+                return Result.CLOSED;
+            }
+        } while (!tally.compareAndSet(current, current + unit));
+        return cast(current + unit) == eligible.size() ? Result.LAST_BALLOT : Result.ACCEPTED;
+    }
+
+    // 한 번만 성공. 이후 집계는 고정되고, 예약된 시간 초과 처리는 취소
+    boolean close() {
+        if ((tally.getAndUpdate(value -> value | CLOSED) & CLOSED) != 0) {
+            return false;
+        }
+        ScheduledFuture<?> pending = timer;
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        return true;
+    }
+
+    void setTimer(ScheduledFuture<?> timer) {
+        this.timer = timer;
+        if (isClosed()) {
+            timer.cancel(false); // 타이머 등록 전에 이미 종료된 경우
+        }
+    }
+
+    boolean isClosed() {
+        return (tally.get() & CLOSED) != 0;
+    }
+
+    Set<String> eligible() {
+        return eligible;
+    }
+
+    // 지금까지 반영된 표 (스냅샷 기록용)
+    Map<String, Boolean> ballots() {
+        return Collections.unmodifiableMap(ballots);
+    }
+
+    int eligibleCount() {
+        return eligible.size();
+    }
+
+    int yes() {
+        return (int) (tally.get() & COUNT_MASK);
+    }
+
+    int no() {
+        return (int) ((tally.get() >>> 31) & COUNT_MASK);
+    }
+
+    int cast() {
+        return cast(tally.get());
+    }
+
+    // 반영된 표 수
+    private static int cast(long value) {
+        return (int) ((value & COUNT_MASK) + ((value >>> 31) & COUNT_MASK));
+    }
+}
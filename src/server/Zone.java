@@ -0,0 +1,54 @@
+package server;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+// 열람실(구역) 하나의 에어컨 상태. 상태 변경은 구역에 배정된 샤드 스레드에서 실행
+public final class Zone {
+    private final int index;     // 구역 번호 (0부터)
+    private final String name;   // 구역 이름 (예: "A열람실")
+    private final ScheduledExecutorService shard; // 이 구역의 작업을 실행하는 단일 스레드
+
+    volatile String season = "summer";      // 현재 계절 (여름/겨울)
+    volatile String modeChoice = "average"; // 온도 결정 방식: "majority" (다수결 모드) 또는 요청 집계 방식
+                                            // ("average" 평균, "median" 중앙값, "trimmed" 절사평균, "comfort" 쾌적)
+    volatile String acMode = "냉방";         // 운전 모드 (냉방/난방)
+    volatile int currentTemperature = 24;   // 설정 온도 (요청 집계/투표/관리자가 정함)
+    volatile double airTemperature = 24;    // 실제 공기 온도 (ThermalSimulator가 틱마다 갱신)
+    volatile int windSpeed = 1;             // 바람 세기
+
+    final TemperatureWindow window;                                  // 사용자 요청 온도 집계 창
+    volatile VoteSession latestVote;                                 // 가장 최근에 열린 투표 (번호 없는 표의 대상)
+    final ChatLog chatLog = new ChatLog();                           // 최근 채팅 기록 (과거 기록 요청에 응답)
+    final ClimateState state = new ClimateState(this);               // 상태 버전과 최근 변경분 (클라이언트 동기화)
+    final Presence presence = new Presence(this);                    // 입장/퇴장 알림 (몰려오면 묶어서 전송)
+
+    Zone(int index, String name, int firstSeat, int lastSeat, ScheduledExecutorService shard) {
+        this.index = index;
+        this.name = name;
+        this.shard = shard;
+        this.window = new TemperatureWindow(firstSeat, lastSeat, shard, () -> modeChoice,
+                average -> AirConditionerManager.applyAverageTemperature(this, average));
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // 구역 샤드에서 작업 실행 (같은 구역의 작업은 순서대로, 다른 구역과는 병렬로 처리)
+    void execute(Runnable task) {
+        shard.execute(task);
+    }
+
+    ScheduledExecutorService shard() {
+        return shard;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
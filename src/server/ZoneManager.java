@@ -0,0 +1,96 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+// 구역 목록과 자리 → 구역 매핑, 구역 작업용 샤드 스레드 관리
+//   -Daircon.zones="A열람실:1-33;B열람실:34-66;C열람실:67-99"  (이름:시작-끝 자리)
+//   -Daircon.zones.count=300 -Daircon.zones.seatsPerZone=20     (구역1, 구역2 ... 자동 생성)
+//   -Daircon.zones.shards=8                                    (샤드 스레드 수, 기본: CPU 코어 수)
+// 설정이 없으면 1~99번 자리를 모두 포함하는 "기본" 구역 하나
+public class ZoneManager {
+    private static final List<Zone> zones = new ArrayList<>();
+    private static Zone[] seatToZone = new Zone[0]; // 자리 번호 → 구역 (범위 밖 자리는 첫 구역)
+    private static final ScheduledExecutorService[] shards;
+
+    static {
+        int shardCount = Integer.getInteger("aircon.zones.shards", Math.max(1, Runtime.getRuntime().availableProcessors()));
+        shards = new ScheduledExecutorService[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            int shardIndex = i;
+            ScheduledThreadPoolExecutor shard = new ScheduledThreadPoolExecutor(1, task -> {
+                Thread thread = new Thread(task, "zone-shard-" + shardIndex);
+                thread.setDaemon(true);
+                return thread;
+            });
+            shard.setRemoveOnCancelPolicy(true); // 조기 종료된 투표의 30초 타이머가 큐에 남지 않도록
+            shards[i] = shard;
+        }
+
+        String spec = System.getProperty("aircon.zones");
+        Integer count = Integer.getInteger("aircon.zones.count");
+        if (spec != null && !spec.isBlank()) {
+            for (String entry : spec.split(";")) {
+                String[] parts = entry.split(":");
+                String[] range = parts[1].split("-");
+                addZone(parts[0].trim(), Integer.parseInt(range[0].trim()), Integer.parseInt(range[1].trim()));
+            }
+        } else if (count != null) {
+            int seatsPerZone = Integer.getInteger("aircon.zones.seatsPerZone", 20);
+            for (int i = 0; i < count; i++) {
+                addZone("구역" + (i + 1), i * seatsPerZone + 1, (i + 1) * seatsPerZone);
+            }
+        } else {
+            addZone("기본", 1, 99);
+        }
+    }
+
+    private static void addZone(String name, int firstSeat, int lastSeat) {
+        int index = zones.size();
+        Zone zone = new Zone(index, name, firstSeat, lastSeat, shards[index % shards.length]);
+        zones.add(zone);
+        if (seatToZone.length <= lastSeat) {
+            Zone[] grown = new Zone[lastSeat + 1];
+            System.arraycopy(seatToZone, 0, grown, 0, seatToZone.length);
+            seatToZone = grown;
+        }
+        for (int seat = firstSeat; seat <= lastSeat; seat++) {
+            seatToZone[seat] = zone;
+        }
+        System.out.println("[INFO] 구역 등록: " + name + " (" + firstSeat + "~" + lastSeat + "번 자리)");
+    }
+
+    // 자리 번호가 속한 구역 (관리자나 매핑되지 않은 자리는 첫 구역)
+    public static Zone zoneOf(String seatId) {
+        try {
+            int seat = Integer.parseInt(seatId);
+            if (seat >= 0 && seat < seatToZone.length && seatToZone[seat] != null) {
+                return seatToZone[seat];
+            }
+        } catch (NumberFormatException e) {
+            // 숫자가 아닌 자리 (admin 등)
+        }
+        return zones.get(0);
+    }
+
+    // 이름으로 구역 찾기 (없으면 null)
+    public static Zone byName(String name) {
+        for (Zone zone : zones) {
+            if (zone.getName().equals(name)) {
+                return zone;
+            }
+        }
+        return null;
+    }
+
+    public static List<Zone> all() {
+        return Collections.unmodifiableList(zones);
+    }
+
+    public static int count() {
+        return zones.size();
+    }
+}